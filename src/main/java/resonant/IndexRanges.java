@@ -0,0 +1,80 @@
+package resonant;
+
+import java.util.Arrays;
+
+/**
+ * Reads and writes sets of 1-based task numbers written as a comma-separated list of
+ * numbers and ranges, e.g. {@code 3,7,9-12}.
+ * <p>
+ * The same syntax is used by bulk commands such as {@code delete 3,7,9-12} and by the
+ * journal lines that record them.
+ * </p>
+ */
+public final class IndexRanges {
+
+    /** Most task numbers a single list may expand to, so a typo cannot exhaust memory. */
+    private static final int MAX_NUMBERS = 1 << 24;
+
+    private IndexRanges() {
+    }
+
+    /**
+     * Parses a list of numbers and ranges into sorted, distinct task numbers.
+     *
+     * @param s the text to parse, e.g. {@code "9-12, 3,7"}
+     * @return the task numbers in increasing order, without duplicates
+     * @throws NumberFormatException if an item is not a positive number or an increasing range,
+     *                               or the list names more than {@value #MAX_NUMBERS} numbers
+     */
+    public static int[] parse(String s) {
+        int[] out = new int[8];
+        int n = 0;
+        for (String item : s.split(",", -1)) {
+            String part = item.trim();
+            int dash = part.indexOf('-');
+            int from = Integer.parseInt(dash < 0 ? part : part.substring(0, dash).trim());
+            int to = dash < 0 ? from : Integer.parseInt(part.substring(dash + 1).trim());
+            if (from < 1 || to < from) {
+                throw new NumberFormatException("Bad range: " + part);
+            }
+            if ((long) n + to - from + 1 > MAX_NUMBERS) {
+                throw new NumberFormatException("Too many task numbers: " + s);
+            }
+            if (n + (to - from + 1) > out.length) {
+                out = Arrays.copyOf(out, Math.max(n + (to - from + 1), out.length * 2));
+            }
+            for (int k = 0; k <= to - from; k++) {
+                out[n++] = from + k;
+            }
+        }
+        Arrays.sort(out, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || out[i] != out[distinct - 1]) {
+                out[distinct++] = out[i];
+            }
+        }
+        return Arrays.copyOf(out, distinct);
+    }
+
+    /**
+     * Formats sorted, distinct task numbers, collapsing consecutive runs into ranges.
+     *
+     * @param sorted the task numbers in increasing order
+     * @return the text, e.g. {@code "3,7,9-12"}
+     */
+    public static String format(int[] sorted) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sorted.length; ) {
+            int j = i;
+            while (j + 1 < sorted.length && sorted[j + 1] == sorted[j] + 1) {
+                j++;
+            }
+            if (sb.length() > 0) sb.append(',');
+            sb.append(sorted[i]);
+            if (j > i) sb.append('-').append(sorted[j]);
+            i = j + 1;
+        }
+        return sb.toString();
+    }
+}
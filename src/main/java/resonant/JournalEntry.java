@@ -0,0 +1,331 @@
+package resonant;
+
+import resonant.storage.PipeFormat;
+import resonant.tasks.Deadline;
+import resonant.tasks.Event;
+import resonant.tasks.StringPool;
+import resonant.tasks.Task;
+import resonant.tasks.Todo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a single mutation of the task list as recorded in the storage journal.
+ * <p>
+ * Instead of rewriting the whole data file after every command, {@link Storage} appends
+ * one small journal entry per mutation and replays the entries on top of the last snapshot
+ * when loading. Indices are 1-based and refer to the task list as it was when the
+ * mutation was applied, so entries must be replayed in the order they were written.
+ * </p>
+ *
+ * <p>
+ * Example journal contents, each entry prefixed by {@link Storage} with a sequence number
+ * and a CRC-32C:
+ * <pre>
+ * 1 b57d9a84 N | T 0 9:read book
+ * 2 0c3e61d2 N | D 1 10:pay a|b bill 10:2025-10-10
+ * 3 ff844deb M | 1
+ * 4 c0f1d1ec X | 1
+ * 5 5e0b2a17 M | 2-4,7
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * An added task is written as its type letter, its done flag, and each text field prefixed
+ * with its length, so that text containing {@code '|'} survives a replay. Added tasks
+ * journaled before that, as {@code A | } followed by a {@link PipeFormat} line, are still read.
+ * </p>
+ *
+ * <p>
+ * A bulk command is recorded as a single entry naming several positions, written with
+ * {@link IndexRanges}. Its positions all refer to the list as it was before the command.
+ * </p>
+ */
+public final class JournalEntry {
+
+    /** The kinds of mutation that can be journaled. */
+    public enum Op { ADD, MARK, UNMARK, DELETE }
+
+    private final Op op;
+    private final Task task;
+    /** The affected 1-based positions in increasing order; empty for {@link Op#ADD}. */
+    private final int[] indices;
+
+    private JournalEntry(Op op, Task task, int... indices) {
+        this.op = op;
+        this.task = task;
+        this.indices = indices;
+    }
+
+    /**
+     * Creates an entry recording that a task was appended to the list.
+     *
+     * @param task the task that was added
+     * @return the journal entry
+     */
+    public static JournalEntry add(Task task) {
+        return new JournalEntry(Op.ADD, task);
+    }
+
+    /**
+     * Creates an entry recording that a task was marked as done.
+     *
+     * @param index1Based the position of the task (1-based)
+     * @return the journal entry
+     */
+    public static JournalEntry mark(int index1Based) {
+        return new JournalEntry(Op.MARK, null, index1Based);
+    }
+
+    /**
+     * Creates an entry recording that several tasks were marked as done.
+     *
+     * @param indices1Based the positions of the tasks (1-based), in increasing order
+     * @return the journal entry
+     */
+    public static JournalEntry mark(int[] indices1Based) {
+        return new JournalEntry(Op.MARK, null, indices1Based.clone());
+    }
+
+    /**
+     * Creates an entry recording that a task was marked as not done.
+     *
+     * @param index1Based the position of the task (1-based)
+     * @return the journal entry
+     */
+    public static JournalEntry unmark(int index1Based) {
+        return new JournalEntry(Op.UNMARK, null, index1Based);
+    }
+
+    /**
+     * Creates an entry recording that several tasks were marked as not done.
+     *
+     * @param indices1Based the positions of the tasks (1-based), in increasing order
+     * @return the journal entry
+     */
+    public static JournalEntry unmark(int[] indices1Based) {
+        return new JournalEntry(Op.UNMARK, null, indices1Based.clone());
+    }
+
+    /**
+     * Creates an entry recording that a task was deleted.
+     *
+     * @param index1Based the position of the task (1-based)
+     * @return the journal entry
+     */
+    public static JournalEntry delete(int index1Based) {
+        return new JournalEntry(Op.DELETE, null, index1Based);
+    }
+
+    /**
+     * Creates an entry recording that several tasks were deleted at once.
+     *
+     * @param indices1Based the positions of the tasks (1-based) before the deletion, in increasing order
+     * @return the journal entry
+     */
+    public static JournalEntry delete(int[] indices1Based) {
+        return new JournalEntry(Op.DELETE, null, indices1Based.clone());
+    }
+
+    /**
+     * Returns the kind of mutation this entry records.
+     *
+     * @return the operation
+     */
+    public Op op() {
+        return op;
+    }
+
+    /**
+     * Returns the added task, or {@code null} for entries other than {@link Op#ADD}.
+     *
+     * @return the added task
+     */
+    public Task task() {
+        return task;
+    }
+
+    /**
+     * Returns the first 1-based position affected by this entry, or {@code 0} for {@link Op#ADD}.
+     *
+     * @return the affected position
+     */
+    public int index() {
+        return indices.length == 0 ? 0 : indices[0];
+    }
+
+    /**
+     * Returns every 1-based position affected by this entry, in increasing order.
+     *
+     * @return the affected positions; empty for {@link Op#ADD}
+     */
+    public int[] indices() {
+        return indices.clone();
+    }
+
+    /**
+     * Re-applies this mutation to the given list.
+     * <p>
+     * Positions outside the list are ignored, mirroring the way malformed snapshot lines
+     * are skipped during loading.
+     * </p>
+     *
+     * @param tasks the list to modify
+     */
+    public void applyTo(List<Task> tasks) {
+        if (op == Op.ADD) {
+            tasks.add(task);
+            return;
+        }
+        int[] positions = new int[indices.length];
+        int n = 0;
+        for (int index : indices) {
+            if (index >= 1 && index <= tasks.size()) {
+                positions[n++] = index - 1;
+            }
+        }
+        switch (op) {
+            case MARK, UNMARK -> {
+                for (int k = 0; k < n; k++) {
+                    // Write the task back so lists that materialize tasks lazily keep the change.
+                    Task t = tasks.get(positions[k]);
+                    if (op == Op.MARK) t.mark(); else t.unmark();
+                    tasks.set(positions[k], t);
+                }
+            }
+            case DELETE -> TaskList.removePositions(tasks, Arrays.copyOf(positions, n));
+            default -> { /* handled above */ }
+        }
+    }
+
+    /**
+     * Serializes this entry into a single journal line.
+     *
+     * @return the journal line, without a trailing newline
+     */
+    String encode() {
+        return switch (op) {
+            case ADD -> encodeTask(task);
+            case MARK -> "M | " + IndexRanges.format(indices);
+            case UNMARK -> "U | " + IndexRanges.format(indices);
+            case DELETE -> "X | " + IndexRanges.format(indices);
+        };
+    }
+
+    /**
+     * Parses a journal line produced by {@link #encode()}.
+     *
+     * @param line the journal line
+     * @return the decoded entry, or {@code null} if the line is malformed
+     */
+    static JournalEntry decode(String line) {
+        int bar = line.indexOf('|');
+        if (bar < 0) {
+            return null;
+        }
+        String tag = line.substring(0, bar).trim();
+        String rest = line.substring(bar + 1).trim();
+        try {
+            switch (tag) {
+                case "N" -> {
+                    Task t = decodeTask(line, bar + 1);
+                    return t == null ? null : add(t);
+                }
+                case "A" -> {
+                    Task t = PipeFormat.decode(rest);
+                    return t == null ? null : add(t);
+                }
+                case "M" -> {
+                    return new JournalEntry(Op.MARK, null, IndexRanges.parse(rest));
+                }
+                case "U" -> {
+                    return new JournalEntry(Op.UNMARK, null, IndexRanges.parse(rest));
+                }
+                case "X" -> {
+                    return new JournalEntry(Op.DELETE, null, IndexRanges.parse(rest));
+                }
+                default -> {
+                    return null;
+                }
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /** Encodes an added task as {@code N | <type> <done> <len>:<text>...}. */
+    private static String encodeTask(Task t) {
+        StringBuilder sb = new StringBuilder(32 + t.description().length());
+        if (t instanceof Deadline) {
+            sb.append("N | D ");
+        } else if (t instanceof Event) {
+            sb.append("N | E ");
+        } else {
+            sb.append("N | T ");
+        }
+        sb.append(t.isDone() ? '1' : '0');
+        appendField(sb, t.description());
+        if (t instanceof Deadline) {
+            appendField(sb, ((Deadline) t).by());
+        } else if (t instanceof Event) {
+            appendField(sb, ((Event) t).from());
+            appendField(sb, ((Event) t).to());
+        }
+        return sb.toString();
+    }
+
+    private static void appendField(StringBuilder sb, String text) {
+        sb.append(' ').append(text.length()).append(':').append(text);
+    }
+
+    /**
+     * Decodes the task written by {@link #encodeTask} after the {@code '|'} ending at {@code from}.
+     *
+     * @return the task, or {@code null} if its type is unknown or the line has unused text
+     * @throws NumberFormatException     if a length prefix is malformed
+     * @throws IndexOutOfBoundsException if a field runs past the end of the line
+     */
+    private static Task decodeTask(String line, int from) {
+        int[] pos = { from };
+        while (pos[0] < line.length() && line.charAt(pos[0]) == ' ') pos[0]++;
+        char type = line.charAt(pos[0]);
+        boolean done = line.charAt(pos[0] + 2) == '1';
+        pos[0] += 3;
+        Task t;
+        switch (type) {
+            case 'T' -> t = new Todo(field(line, pos));
+            case 'D' -> {
+                String desc = field(line, pos);
+                t = new Deadline(desc, field(line, pos));
+            }
+            case 'E' -> {
+                String desc = field(line, pos);
+                String start = field(line, pos);
+                t = new Event(desc, start, field(line, pos));
+            }
+            default -> {
+                return null;
+            }
+        }
+        if (pos[0] != line.length()) {
+            return null;
+        }
+        if (done) t.mark();
+        return t;
+    }
+
+    /** Reads one {@code " <len>:<text>"} field starting at {@code pos[0]} and moves past it. */
+    private static String field(String line, int[] pos) {
+        if (line.charAt(pos[0]) != ' ') {
+            throw new NumberFormatException("Missing field separator at " + pos[0]);
+        }
+        int colon = line.indexOf(':', pos[0] + 1);
+        if (colon < 0) {
+            throw new NumberFormatException("Missing field length at " + pos[0]);
+        }
+        int len = Integer.parseInt(line.substring(pos[0] + 1, colon));
+        pos[0] = colon + 1 + len;
+        return StringPool.SHARED.intern(line.substring(colon + 1, colon + 1 + len));
+    }
+}
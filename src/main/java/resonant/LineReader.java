@@ -0,0 +1,94 @@
+package resonant;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+/**
+ * Reads lines of input through one large character buffer.
+ * <p>
+ * Lines end at {@code "\n"}, {@code "\r\n"} or a lone {@code "\r"}, and the terminator is
+ * not included. The buffer is scanned directly for terminators, without the pattern
+ * matching {@link java.util.Scanner} does per line, and the end of the input is reported
+ * by returning {@code null} rather than by throwing. A final line without a terminator is
+ * still returned.
+ * </p>
+ */
+final class LineReader {
+
+    /** Characters read from the underlying stream at a time. */
+    private static final int BUFFER_CHARS = 1 << 16;
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER_CHARS];
+    private int pos;
+    private int limit;
+
+    /** Whether the last line ended with {@code '\r'}, so a {@code '\n'} that follows belongs to it. */
+    private boolean skipLf;
+
+    /**
+     * Creates a reader that decodes {@code in} with {@code charset}.
+     *
+     * @param in      the input
+     * @param charset how the input is encoded
+     */
+    LineReader(InputStream in, Charset charset) {
+        this.in = new InputStreamReader(in, charset);
+    }
+
+    /**
+     * Returns the next line, waiting for it if necessary.
+     *
+     * @return the line without its terminator, or {@code null} at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    String readLine() throws IOException {
+        StringBuilder partial = null;
+        while (true) {
+            if (pos == limit && !fill()) {
+                return partial == null ? null : partial.toString();
+            }
+            if (skipLf) {
+                skipLf = false;
+                if (buf[pos] == '\n') {
+                    pos++;
+                    continue;
+                }
+            }
+            int start = pos;
+            while (pos < limit) {
+                char c = buf[pos];
+                if (c == '\n' || c == '\r') {
+                    String line = partial == null
+                            ? new String(buf, start, pos - start)
+                            : partial.append(buf, start, pos - start).toString();
+                    pos++;
+                    skipLf = c == '\r';
+                    return line;
+                }
+                pos++;
+            }
+            if (partial == null) {
+                partial = new StringBuilder(pos - start + 80);
+            }
+            partial.append(buf, start, pos - start);
+        }
+    }
+
+    /** Reads more input into the empty buffer, returning {@code false} at the end of the input. */
+    private boolean fill() throws IOException {
+        int n;
+        do {
+            n = in.read(buf, 0, buf.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
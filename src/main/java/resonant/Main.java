@@ -1,7 +1,115 @@
 package resonant;
 
+import resonant.storage.Durability;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 public class Main {
     public static void main(String[] args) {
-        new Resonant("resonant.txt").run();
+        String dataFile = "resonant.dat";
+        Durability durability = Durability.BATCH;
+        int maxTasks = TaskList.UNLIMITED;
+        TaskList.Backend backend = TaskList.Backend.ARRAY;
+        String script = null;
+        boolean echo = false;
+        int checkpointEvery = 0;
+        int port = -1;
+        int historyDepth = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--data") && i + 1 < args.length) {
+                dataFile = args[++i];
+            } else if (args[i].equals("--durability") && i + 1 < args.length) {
+                try {
+                    durability = Durability.parse(args[++i]);
+                } catch (IllegalArgumentException e) {
+                    System.err.println(e.getMessage());
+                    System.exit(1);
+                }
+            } else if (args[i].equals("--max-tasks") && i + 1 < args.length) {
+                try {
+                    maxTasks = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    maxTasks = -1;
+                }
+                if (maxTasks <= 0) {
+                    System.err.println("--max-tasks expects a positive number.");
+                    System.exit(1);
+                }
+            } else if (args[i].equals("--backend") && i + 1 < args.length) {
+                try {
+                    backend = TaskList.Backend.parse(args[++i]);
+                } catch (IllegalArgumentException e) {
+                    System.err.println(e.getMessage());
+                    System.exit(1);
+                }
+            } else if (args[i].equals("--compact")) {
+                backend = TaskList.Backend.COMPACT;
+            } else if (args[i].equals("--script") && i + 1 < args.length) {
+                script = args[++i];
+            } else if (args[i].equals("--echo")) {
+                echo = true;
+            } else if (args[i].equals("--checkpoint") && i + 1 < args.length) {
+                try {
+                    checkpointEvery = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    checkpointEvery = -1;
+                }
+                if (checkpointEvery <= 0) {
+                    System.err.println("--checkpoint expects a positive number.");
+                    System.exit(1);
+                }
+            } else if (args[i].equals("--history") && i + 1 < args.length) {
+                try {
+                    historyDepth = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    historyDepth = -1;
+                }
+                if (historyDepth <= 0) {
+                    System.err.println("--history expects a positive number.");
+                    System.exit(1);
+                }
+            } else if (args[i].equals("--serve") && i + 1 < args.length) {
+                try {
+                    port = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    port = -1;
+                }
+                if (port < 0 || port > 65535) {
+                    System.err.println("--serve expects a port number from 0 to 65535.");
+                    System.exit(1);
+                }
+            }
+        }
+        if (historyDepth > 0 && backend != TaskList.Backend.CONCURRENT) {
+            // Versions are kept cheaply only by sharing tree nodes.
+            backend = TaskList.Backend.TREE;
+        }
+        if (port >= 0) {
+            // Clients share one list, which only the concurrent backend allows.
+            new Resonant(dataFile, durability, maxTasks, TaskList.Backend.CONCURRENT, historyDepth).serve(port);
+            return;
+        }
+        if (script == null) {
+            new Resonant(dataFile, durability, maxTasks, backend, historyDepth).run();
+            return;
+        }
+        BufferedReader in;
+        try {
+            in = script.equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                    : Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Couldn't open script " + script + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        int failed = new Resonant(dataFile, durability, maxTasks, backend, historyDepth)
+                .runScript(in, echo, checkpointEvery);
+        System.exit(failed == 0 ? 0 : 1);
     }
 }
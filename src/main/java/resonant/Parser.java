@@ -1,28 +1,55 @@
 package resonant;
 
 import resonant.commands.*;
+import resonant.tasks.DateParser;
+
+import java.time.LocalDateTime;
 
 /**
  * Parses raw user input into executable {@link Command} objects.
  * <p>
  * Supported commands include: {@code bye}, {@code list}, {@code mark},
  * {@code unmark}, {@code delete}, {@code todo}, {@code deadline}, {@code event},
- * and {@code find}.
+ * {@code find}, {@code due}, {@code at} and {@code memory}.
+ * </p>
+ *
+ * <p>
+ * The input is scanned once: the verb (everything up to the first space) is dispatched on
+ * its first character and then compared in place, and arguments and keywords such as
+ * {@code /by} are located as offsets into the input. Only the strings a command actually
+ * keeps, such as a description, are copied out.
+ * </p>
  */
 public class Parser {
     private static final String CMD_BYE = "bye";
     private static final String CMD_LIST = "list";
-    private static final String CMD_MARK = "mark ";
-    private static final String CMD_UNMARK = "unmark ";
-    private static final String CMD_TODO = "todo ";
-    private static final String CMD_DEADLINE = "deadline ";
-    private static final String CMD_EVENT = "event ";
-    private static final String CMD_DELETE = "delete ";
-    private static final String CMD_FIND = "find ";
+    private static final String CMD_MEMORY = "memory";
+    private static final String CMD_MARK = "mark";
+    private static final String CMD_UNMARK = "unmark";
+    private static final String CMD_TODO = "todo";
+    private static final String CMD_DEADLINE = "deadline";
+    private static final String CMD_EVENT = "event";
+    private static final String CMD_DELETE = "delete";
+    private static final String CMD_FIND = "find";
+    private static final String CMD_DUE = "due";
+    private static final String CMD_AT = "at";
+    private static final String CMD_UNDO = "undo";
+    private static final String CMD_REDO = "redo";
 
     private static final String KW_BY = "/by";
     private static final String KW_FROM = "/from";
     private static final String KW_TO = "/to";
+    private static final String KW_ALL = "/all";
+    private static final String KW_ANY = "/any";
+    private static final String KW_BEFORE = "/before";
+    private static final String KW_AFTER = "/after";
+    private static final String KW_DONE = "/done";
+    private static final String KW_PENDING = "/pending";
+    private static final String KW_PAGE = "/page";
+    private static final String KW_SIZE = "/size";
+
+    private static final String LIST_USAGE =
+            "Usage: list [/done | /pending | /page N [/size K] | /from I [/to J]]";
 
     /**
      * Parses a line of user input and returns the corresponding {@link Command}.
@@ -36,53 +63,280 @@ public class Parser {
             throw unknown(input);
         }
 
-        if (input.equals(CMD_BYE)) {
-            return new ExitCommand();
+        int end = input.length();
+        int verbEnd = input.indexOf(' ');
+        if (verbEnd < 0) {
+            verbEnd = end;
         }
-        if (input.equals(CMD_LIST)) {
-            return new ListCommand();
+        // Commands that take arguments need a space after the verb; the others must be alone.
+        boolean hasArgs = verbEnd < end;
+
+        switch (input.charAt(0)) {
+            case 'a' -> {
+                if (hasArgs && isVerb(input, verbEnd, CMD_AT)) {
+                    return parseAt(input, verbEnd, end);
+                }
+            }
+            case 'b' -> {
+                if (!hasArgs && isVerb(input, verbEnd, CMD_BYE)) {
+                    return new ExitCommand();
+                }
+            }
+            case 'd' -> {
+                if (hasArgs && isVerb(input, verbEnd, CMD_DEADLINE)) {
+                    return parseDeadline(input, verbEnd, end);
+                }
+                if (hasArgs && isVerb(input, verbEnd, CMD_DELETE)) {
+                    if (isBulk(input, verbEnd + 1, end)) {
+                        return new BulkDeleteCommand(parseIndices(input.substring(verbEnd + 1), "delete"));
+                    }
+                    return new DeleteCommand(parseIndex(input, verbEnd + 1, end, "delete"));
+                }
+                if (hasArgs && isVerb(input, verbEnd, CMD_DUE)) {
+                    return parseDue(input, verbEnd, end);
+                }
+            }
+            case 'e' -> {
+                if (hasArgs && isVerb(input, verbEnd, CMD_EVENT)) {
+                    return parseEvent(input, verbEnd, end);
+                }
+            }
+            case 'f' -> {
+                if (hasArgs && isVerb(input, verbEnd, CMD_FIND)) {
+                    return parseFind(input, verbEnd, end);
+                }
+            }
+            case 'l' -> {
+                if (isVerb(input, verbEnd, CMD_LIST)) {
+                    return hasArgs ? parseList(input, verbEnd, end) : new ListCommand();
+                }
+            }
+            case 'm' -> {
+                if (hasArgs && isVerb(input, verbEnd, CMD_MARK)) {
+                    if (isBulk(input, verbEnd + 1, end)) {
+                        return new BulkMarkCommand(parseIndices(input.substring(verbEnd + 1), "mark"), true);
+                    }
+                    return new MarkCommand(parseIndex(input, verbEnd + 1, end, "mark"));
+                }
+                if (!hasArgs && isVerb(input, verbEnd, CMD_MEMORY)) {
+                    return new MemoryCommand();
+                }
+            }
+            case 'r' -> {
+                if (!hasArgs && isVerb(input, verbEnd, CMD_REDO)) {
+                    return new UndoCommand(true);
+                }
+            }
+            case 't' -> {
+                if (hasArgs && isVerb(input, verbEnd, CMD_TODO)) {
+                    return new AddTodoCommand(slice(input, verbEnd, end));
+                }
+            }
+            case 'u' -> {
+                if (hasArgs && isVerb(input, verbEnd, CMD_UNMARK)) {
+                    if (isBulk(input, verbEnd + 1, end)) {
+                        return new BulkMarkCommand(parseIndices(input.substring(verbEnd + 1), "unmark"), false);
+                    }
+                    return new UnmarkCommand(parseIndex(input, verbEnd + 1, end, "unmark"));
+                }
+                if (!hasArgs && isVerb(input, verbEnd, CMD_UNDO)) {
+                    return new UndoCommand(false);
+                }
+            }
+            default -> {
+                // Not a known verb.
+            }
         }
 
-        if (input.startsWith(CMD_MARK)) {
-            return new MarkCommand(parseIndex(input.substring(CMD_MARK.length()), "mark"));
+        throw unknown(input);
+    }
+
+    /**
+     * Parses the options of a {@code list} command: none, {@code /done}, {@code /pending},
+     * {@code /page N [/size K]} or {@code /from I [/to J]}.
+     */
+    private static Command parseList(String input, int from, int to) throws DukeException {
+        int s = skipSpace(input, from, to);
+        int e = trimEnd(input, s, to);
+        if (regionIs(input, s, e, KW_DONE)) {
+            return new ListCommand(ListCommand.Filter.DONE);
         }
-        if (input.startsWith(CMD_UNMARK)) {
-            return new UnmarkCommand(parseIndex(input.substring(CMD_UNMARK.length()), "unmark"));
+        if (regionIs(input, s, e, KW_PENDING)) {
+            return new ListCommand(ListCommand.Filter.PENDING);
         }
-        if (input.startsWith(CMD_DELETE)) {
-            return new DeleteCommand(parseIndex(input.substring(CMD_DELETE.length()), "delete"));
+        if (startsWithOption(input, s, e, KW_PAGE)) {
+            int sizeAt = input.indexOf(KW_SIZE, s);
+            int pageEnd = sizeAt < 0 || sizeAt >= e ? e : sizeAt;
+            int page = parsePositive(input, s + KW_PAGE.length(), pageEnd);
+            int size = pageEnd == e ? ListCommand.DEFAULT_PAGE_SIZE
+                    : parsePositive(input, pageEnd + KW_SIZE.length(), e);
+            long first = (long) (page - 1) * size + 1;
+            return new ListCommand((int) Math.min(first, Integer.MAX_VALUE),
+                    (int) Math.min(first + size - 1, Integer.MAX_VALUE));
         }
-        if (input.startsWith(CMD_TODO)) {
-            String desc = input.substring(CMD_TODO.length()).trim();
-            return new AddTodoCommand(desc);
+        if (startsWithOption(input, s, e, KW_FROM)) {
+            int toAt = input.indexOf(KW_TO, s + KW_FROM.length());
+            int fromEnd = toAt < 0 || toAt >= e ? e : toAt;
+            int first = parsePositive(input, s + KW_FROM.length(), fromEnd);
+            int last = fromEnd == e ? Integer.MAX_VALUE : parsePositive(input, fromEnd + KW_TO.length(), e);
+            if (last < first) {
+                throw new DukeException("The end of the range comes before its start. " + LIST_USAGE);
+            }
+            return new ListCommand(first, last);
         }
-        if (input.startsWith(CMD_DEADLINE)) {
-            String body = input.substring(CMD_DEADLINE.length()).trim();
-            String[] s = splitOnKeyword(body, KW_BY);
-            if (s[1] == null) {
-                throw new DukeException("Missing '/by'. Usage: deadline <desc> /by <when>");
+        throw new DukeException("Unknown list option '" + input.substring(s, e) + "'. " + LIST_USAGE);
+    }
+
+    /**
+     * Parses a positive number for a {@code list} option from {@code input[from, to)}.
+     */
+    private static int parsePositive(String input, int from, int to) throws DukeException {
+        int s = skipSpace(input, from, to);
+        int e = trimEnd(input, s, to);
+        try {
+            int n = Integer.parseInt(input, s, e, 10);
+            if (n < 1) {
+                throw new NumberFormatException();
             }
-            return new AddDeadlineCommand(s[0], s[1]);
+            return n;
+        } catch (NumberFormatException ex) {
+            throw new DukeException("List positions and sizes must be positive integers. " + LIST_USAGE);
+        }
+    }
+
+    /**
+     * Parses the body of a {@code deadline} command: {@code <desc> /by <when>}.
+     */
+    private static Command parseDeadline(String input, int from, int to) throws DukeException {
+        int by = input.indexOf(KW_BY, from);
+        if (by < 0) {
+            throw new DukeException("Missing '/by'. Usage: deadline <desc> /by <when>");
+        }
+        return new AddDeadlineCommand(slice(input, from, by), slice(input, by + KW_BY.length(), to));
+    }
+
+    /**
+     * Parses the body of an {@code event} command: {@code <desc> /from <start> /to <end>},
+     * where {@code /to} is looked for only after {@code /from}.
+     */
+    private static Command parseEvent(String input, int from, int to) throws DukeException {
+        int fromAt = input.indexOf(KW_FROM, from);
+        if (fromAt < 0) {
+            throw new DukeException("Missing '/from'. Usage: event <desc> /from <start> /to <end>");
         }
-        if (input.startsWith(CMD_EVENT)) {
-            String body = input.substring(CMD_EVENT.length()).trim();
-            String[] fromSplit = splitOnKeyword(body, KW_FROM);
-            if (fromSplit[1] == null) {
-                throw new DukeException("Missing '/from'. Usage: event <desc> /from <start> /to <end>");
+        int start = fromAt + KW_FROM.length();
+        int toAt = input.indexOf(KW_TO, start);
+        if (toAt < 0) {
+            throw new DukeException("Missing '/to'. Usage: event <desc> /from <start> /to <end>");
+        }
+        return new AddEventCommand(slice(input, from, fromAt), slice(input, start, toAt),
+                slice(input, toAt + KW_TO.length(), to));
+    }
+
+    /**
+     * Parses the body of a {@code find} command, with an optional {@code /all} or {@code /any}
+     * before the words.
+     */
+    private static Command parseFind(String input, int from, int to) {
+        int s = skipSpace(input, from, to);
+        int e = trimEnd(input, s, to);
+        if (startsWithOption(input, s, e, KW_ALL)) {
+            return new FindCommand(slice(input, s + KW_ALL.length(), e), FindCommand.Mode.ALL_WORDS);
+        }
+        if (startsWithOption(input, s, e, KW_ANY)) {
+            return new FindCommand(slice(input, s + KW_ANY.length(), e), FindCommand.Mode.ANY_WORDS);
+        }
+        return new FindCommand(input.substring(s, e));
+    }
+
+    /**
+     * Parses the body of an {@code at} command: a date, with or without a time.
+     */
+    private static Command parseAt(String input, int from, int to) throws DukeException {
+        String when = slice(input, from, to);
+        LocalDateTime start = parseDate(when);
+        return new AtCommand(start, DateParser.parseEnd(when, start), when);
+    }
+
+    /**
+     * Returns whether the first {@code verbEnd} characters of {@code input} are exactly {@code verb}.
+     */
+    private static boolean isVerb(String input, int verbEnd, String verb) {
+        return verbEnd == verb.length() && input.startsWith(verb);
+    }
+
+    /**
+     * Returns whether {@code input[from, to)} is exactly {@code word}.
+     */
+    private static boolean regionIs(String input, int from, int to, String word) {
+        return to - from == word.length() && input.startsWith(word, from);
+    }
+
+    /**
+     * Returns whether {@code input[from, to)} is {@code option} alone or followed by a space.
+     */
+    private static boolean startsWithOption(String input, int from, int to, String option) {
+        int after = from + option.length();
+        return after <= to && input.startsWith(option, from) && (after == to || input.charAt(after) == ' ');
+    }
+
+    /**
+     * Returns whether {@code input[from, to)} is a list or range of task numbers rather than one number.
+     * A {@code '-'} only separates a range when there is a digit on both sides of it, so that
+     * {@code mark -1} is reported as a bad task number rather than a bad range.
+     */
+    private static boolean isBulk(String input, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = input.charAt(i);
+            if (c == ',') {
+                return true;
             }
-            String[] toSplit = splitOnKeyword(fromSplit[1], KW_TO);
-            if (toSplit[1] == null) {
-                throw new DukeException("Missing '/to'. Usage: event <desc> /from <start> /to <end>");
+            if (c == '-') {
+                int before = i - 1;
+                while (before >= from && input.charAt(before) <= ' ') before--;
+                int after = skipSpace(input, i + 1, to);
+                if (before >= from && Character.isDigit(input.charAt(before))
+                        && after < to && Character.isDigit(input.charAt(after))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code input[from, to)} with leading and trailing whitespace removed, as
+     * {@link String#trim()} would.
+     */
+    private static String slice(String input, int from, int to) {
+        int s = skipSpace(input, from, to);
+        return input.substring(s, trimEnd(input, s, to));
+    }
+
+    /**
+     * Returns whether {@code input[from, to)} is empty or only whitespace, as {@link String#isBlank()} would.
+     */
+    private static boolean isBlank(String input, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(input.charAt(i))) {
+                return false;
             }
-            return new AddEventCommand(fromSplit[0], toSplit[0], toSplit[1]);
         }
+        return true;
+    }
 
-        if (input.startsWith(CMD_FIND)) {
-            String kw = input.substring(CMD_FIND.length()).trim();
-            return new FindCommand(kw);
+    private static int skipSpace(String input, int from, int to) {
+        while (from < to && input.charAt(from) <= ' ') {
+            from++;
         }
+        return from;
+    }
 
-        throw unknown(input);
+    private static int trimEnd(String input, int from, int to) {
+        while (to > from && input.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
     }
 
     /**
@@ -101,43 +355,91 @@ public class Parser {
     }
 
     /**
-     * Parses a 1-based task index from a string for commands that operate on a single task.
+     * Parses a 1-based task index from {@code input[from, to)} for commands that operate on a single task.
      *
-     * @param s      The string containing the index.
+     * @param input  The input line containing the index.
+     * @param from   The offset where the index starts.
+     * @param to     The offset where the index ends.
      * @param action The action name (used for error messages), e.g., {@code "mark"}.
      * @return The parsed 1-based index.
      * @throws DukeException If the index is missing, non-numeric, or not positive.
      */
-    private static int parseIndex(String s, String action) throws DukeException {
-        if (s == null || s.isBlank()) {
+    private static int parseIndex(String input, int from, int to, String action) throws DukeException {
+        if (isBlank(input, from, to)) {
             throw new DukeException("Provide a task number. Usage: " + action + " N");
         }
+        int s = skipSpace(input, from, to);
+        int e = trimEnd(input, s, to);
         try {
-            int idx = Integer.parseInt(s.trim());
+            int idx = Integer.parseInt(input, s, e, 10);
             if (idx < 1) {
                 throw new NumberFormatException();
             }
             return idx;
-        } catch (NumberFormatException e) {
+        } catch (NumberFormatException e2) {
             throw new DukeException("Task number must be a positive integer. Example: " + action + " 2");
         }
     }
 
     /**
-     * Splits a command body on the first occurrence of a keyword and returns
-     * the trimmed left and right parts.
+     * Parses a list of task numbers and ranges for commands that operate on several tasks.
+     *
+     * @param s      The string containing the list, e.g. {@code "3,7,9-12"}.
+     * @param action The action name (used for error messages), e.g., {@code "delete"}.
+     * @return The 1-based task numbers in increasing order, without duplicates.
+     * @throws DukeException If an item is not a positive integer or an increasing range.
+     */
+    private static int[] parseIndices(String s, String action) throws DukeException {
+        try {
+            return IndexRanges.parse(s);
+        } catch (NumberFormatException e) {
+            throw new DukeException("Task numbers must be positive integers or ranges. Example: "
+                    + action + " 1-3,7");
+        }
+    }
+
+    /**
+     * Parses the body of a {@code due} command: {@code /after <date>}, {@code /before <date>},
+     * or both, in that order.
+     *
+     * @param input The input line.
+     * @param from  The offset where the body starts.
+     * @param to    The offset where the body ends.
+     * @return A {@link DueCommand} for the requested range.
+     * @throws DukeException If no bound is given or a bound is not a recognized date.
+     */
+    private static Command parseDue(String input, int from, int to) throws DukeException {
+        int before = input.indexOf(KW_BEFORE, from);
+        int leftEnd = before < 0 ? to : before;
+        int after = input.indexOf(KW_AFTER, from);
+        if (after >= leftEnd) {
+            after = -1;
+        }
+        int text = skipSpace(input, from, after < 0 ? leftEnd : after);
+        if (trimEnd(input, text, after < 0 ? leftEnd : after) > text || (after < 0 && before < 0)) {
+            throw new DukeException("Usage: due /before <date> | due /after <date> [/before <date>]");
+        }
+        String afterText = after < 0 ? null : slice(input, after + KW_AFTER.length(), leftEnd);
+        String beforeText = before < 0 ? null : slice(input, before + KW_BEFORE.length(), to);
+        return new DueCommand(parseDate(afterText), afterText, parseDate(beforeText), beforeText);
+    }
+
+    /**
+     * Parses a date bound of a query.
      *
-     * @param text    The full command body, e.g., {@code "return book /by June 6th"}.
-     * @param keyword The delimiter keyword, e.g., {@code "/by"}.
-     * @return A two-element array: {@code [left, right]} where {@code right} may be {@code null} if the keyword is absent.
-     */
-    private static String[] splitOnKeyword(String text, String keyword) {
-        int idx = text.indexOf(keyword);
-        if (idx == -1) {
-            return new String[]{ text.trim(), null };
-        }
-        String left = text.substring(0, idx).trim();
-        String right = text.substring(idx + keyword.length()).trim();
-        return new String[]{ left, right };
+     * @param s The date as typed, or {@code null} if the bound was not given.
+     * @return The parsed date and time, or {@code null} if {@code s} is {@code null}.
+     * @throws DukeException If {@code s} is present but not a recognized date.
+     */
+    private static LocalDateTime parseDate(String s) throws DukeException {
+        if (s == null) {
+            return null;
+        }
+        LocalDateTime t = DateParser.parse(s);
+        if (t == null) {
+            throw new DukeException("'" + s + "' is not a date I understand. "
+                    + "Use yyyy-mm-dd or d/m/yyyy, optionally followed by a time like 18:00.");
+        }
+        return t;
     }
 }
@@ -1,6 +1,21 @@
 package resonant;
 
 import resonant.commands.Command;
+import resonant.commands.ExitCommand;
+import resonant.storage.Durability;
+import resonant.tasks.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The main entry point of the Resonant application.
@@ -15,6 +30,9 @@ import resonant.commands.Command;
  */
 public class Resonant {
 
+    /** Most connections waiting to be accepted by {@link #serve(int)}. */
+    private static final int SERVER_BACKLOG = 4096;
+
     private final Storage storage;
     private TaskList tasks;
     private final Ui ui;
@@ -29,13 +47,55 @@ public class Resonant {
      * @param filePath The file path used for saving and loading task data.
      */
     public Resonant(String filePath) {
+        this(filePath, Durability.BATCH);
+    }
+
+    /**
+     * Constructs a new {@code Resonant} instance using the given file path and durability mode.
+     *
+     * @param filePath   The file path used for saving and loading task data.
+     * @param durability When saved task data is forced to disk.
+     */
+    public Resonant(String filePath, Durability durability) {
+        this(filePath, durability, TaskList.UNLIMITED, TaskList.Backend.ARRAY);
+    }
+
+    /**
+     * Constructs a new {@code Resonant} instance with a task limit and choice of in-memory layout.
+     *
+     * @param filePath   The file path used for saving and loading task data.
+     * @param durability When saved task data is forced to disk.
+     * @param maxTasks   The maximum number of tasks, or {@link TaskList#UNLIMITED}.
+     * @param backend    How the tasks are laid out in memory.
+     */
+    public Resonant(String filePath, Durability durability, int maxTasks, TaskList.Backend backend) {
+        this(filePath, durability, maxTasks, backend, 0);
+    }
+
+    /**
+     * Constructs a new {@code Resonant} instance that keeps recent changes so they can be undone.
+     *
+     * @param filePath     The file path used for saving and loading task data.
+     * @param durability   When saved task data is forced to disk.
+     * @param maxTasks     The maximum number of tasks, or {@link TaskList#UNLIMITED}.
+     * @param backend      How the tasks are laid out in memory; must be a tree layout if
+     *                     {@code historyDepth} is positive.
+     * @param historyDepth The most changes that can be undone, or 0 to disable undo.
+     */
+    public Resonant(String filePath, Durability durability, int maxTasks, TaskList.Backend backend,
+                    int historyDepth) {
         ui = new Ui();
-        storage = new Storage(filePath);
+        storage = new Storage(filePath, durability);
+        List<Task> loaded;
         try {
-            tasks = new TaskList(storage.load());
+            loaded = storage.load();
         } catch (Exception e) {
             ui.showLoadingError();
-            tasks = new TaskList();
+            loaded = new ArrayList<>();
+        }
+        tasks = TaskList.create(backend, loaded, maxTasks);
+        if (historyDepth > 0) {
+            tasks.enableHistory(historyDepth);
         }
     }
 
@@ -44,18 +104,48 @@ public class Resonant {
      * <p>
      * This method displays a welcome message, reads commands from the user, parses them,
      * executes them, and handles any exceptions that occur during execution.
-     * The loop continues until an exit command is issued.
+     * The loop continues until an exit command is issued or the input ends.
      * </p>
      */
     public void run() {
         ui.showWelcome();
+        ui.flush();
+        converse(ui, null);
+        try {
+            storage.close();
+        } catch (IOException e) {
+            ui.showError("Couldn't save tasks: " + e.getMessage());
+        }
+        ui.flush();
+    }
+
+    /**
+     * Reads and executes commands from one user until an exit command is issued or the input ends.
+     *
+     * @param ui        the user's interface
+     * @param mutations the lock that commands which are not {@linkplain Command#isReadOnly() read-only}
+     *                  must hold while they run, or {@code null} if there is only one user
+     */
+    private void converse(Ui ui, Lock mutations) {
         boolean isExit = false;
         while (!isExit) {
             try {
                 String fullCommand = ui.readCommand();
                 ui.showLine();
-                Command c = Parser.parse(fullCommand);
-                c.execute(tasks, ui, storage);
+                // The end of the input means there is nothing more to do, as if "bye" was typed.
+                // Stop even if that "bye" fails, since no further input can retry it.
+                isExit = fullCommand == null;
+                Command c = isExit ? new ExitCommand() : Parser.parse(fullCommand);
+                if (mutations == null || c.isReadOnly()) {
+                    c.execute(tasks, ui, storage);
+                } else {
+                    mutations.lock();
+                    try {
+                        c.execute(tasks, ui, storage);
+                    } finally {
+                        mutations.unlock();
+                    }
+                }
                 isExit = c.isExit();
             } catch (DukeException e) {
                 ui.showError(e.getMessage());
@@ -63,7 +153,149 @@ public class Resonant {
                 ui.showError("Unexpected error: " + e.getMessage());
             } finally {
                 ui.showLine();
+                ui.flush();
+            }
+        }
+    }
+
+    /**
+     * Serves many users at once over TCP connections to {@code port} on this machine.
+     * <p>
+     * Each connection gets its own {@link Ui} and is handled on its own thread, a virtual
+     * thread where the Java runtime provides them, running the same commands as the
+     * interactive loop against the shared task list. Read-only commands run concurrently on
+     * the latest published snapshot of the list; commands that change it, and with it the
+     * storage, run one at a time. The task list must therefore have been created with
+     * {@link TaskList.Backend#CONCURRENT}. Pending writes are flushed when the program is stopped.
+     * </p>
+     *
+     * @param port the port to listen on, or 0 to pick a free one
+     */
+    public void serve(int port) {
+        Lock mutations = new ReentrantLock(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            mutations.lock();
+            try {
+                storage.close();
+            } catch (IOException e) {
+                System.err.println("Couldn't save tasks: " + e.getMessage());
+            }
+        }, "resonant-shutdown"));
+
+        ExecutorService sessions = newSessionExecutor();
+        try (ServerSocket server = new ServerSocket(port, SERVER_BACKLOG, InetAddress.getLoopbackAddress())) {
+            ui.box(" Serving tasks on " + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort(),
+                    " Stop the server with Ctrl-C.");
+            ui.flush();
+            while (true) {
+                Socket client = server.accept();
+                sessions.execute(() -> session(client, mutations));
+            }
+        } catch (IOException e) {
+            ui.showError("Couldn't serve on port " + port + ": " + e.getMessage());
+            ui.flush();
+        } finally {
+            sessions.shutdown();
+        }
+    }
+
+    /** Runs one client's session until it says bye or disconnects. */
+    private void session(Socket client, Lock mutations) {
+        try (client) {
+            client.setTcpNoDelay(true);
+            Ui remote = new Ui(client.getInputStream(), client.getOutputStream());
+            remote.showWelcome();
+            remote.flush();
+            converse(remote, mutations);
+        } catch (IOException e) {
+            // The client has gone; there is no one left to tell.
+        }
+    }
+
+    /**
+     * Returns an executor that runs each session on a new virtual thread if the Java runtime
+     * supports them, and otherwise on a pooled platform thread.
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Runs a script of commands without interaction, one command per line.
+     * <p>
+     * Lines are parsed on a background thread while earlier ones execute (see
+     * {@link ScriptReader}). Mutations are not journaled one by one: the task list is saved
+     * as a snapshot every {@code checkpointEvery} mutations and once more at the end. Unless
+     * {@code echo} is set, the box each command would normally print is suppressed, and failed
+     * lines are reported with their line numbers on standard error instead. Failed lines do
+     * not stop the script; a {@code bye} line does.
+     * </p>
+     *
+     * @param in              the script
+     * @param echo            whether to print each command's output as in interactive use
+     * @param checkpointEvery the number of mutations between snapshots, or 0 to save only at the end
+     * @return the number of lines that failed
+     */
+    public int runScript(BufferedReader in, boolean echo, int checkpointEvery) {
+        ui.setQuiet(!echo);
+        storage.beginDeferred(checkpointEvery);
+        int executed = 0;
+        int failed = 0;
+        try (ScriptReader reader = new ScriptReader(in)) {
+            boolean isExit = false;
+            for (List<ScriptReader.Line> chunk; !isExit && !(chunk = reader.next()).isEmpty(); ) {
+                for (ScriptReader.Line line : chunk) {
+                    try {
+                        ui.showLine();
+                        if (line.error != null) {
+                            throw line.error;
+                        }
+                        line.command.execute(tasks, ui, storage);
+                        isExit = line.command.isExit();
+                    } catch (DukeException e) {
+                        failed++;
+                        reportScriptError(line.number, e.getMessage(), echo);
+                    } catch (Exception e) {
+                        failed++;
+                        reportScriptError(line.number, "Unexpected error: " + e.getMessage(), echo);
+                    } finally {
+                        ui.showLine();
+                    }
+                    executed++;
+                    if (isExit) {
+                        break;
+                    }
+                }
+                ui.flush();
             }
+        } catch (IOException e) {
+            failed++;
+            System.err.println("Couldn't read the script: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ui.setQuiet(false);
+        try {
+            storage.endDeferred(tasks);
+            storage.close();
+        } catch (IOException e) {
+            ui.showError("Couldn't save tasks: " + e.getMessage());
+        }
+        ui.box(" Ran " + executed + (executed == 1 ? " command" : " commands") + " from the script, "
+                + failed + " failed.");
+        ui.flush();
+        return failed;
+    }
+
+    private void reportScriptError(int lineNumber, String message, boolean echo) {
+        if (echo) {
+            ui.showError("Line " + lineNumber + ": " + message);
+        } else {
+            System.err.println("Line " + lineNumber + ": " + message);
         }
     }
 }
@@ -0,0 +1,134 @@
+package resonant;
+
+import resonant.commands.Command;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads and parses a script of commands on a background thread, one command per line.
+ * <p>
+ * Parsed commands are handed to the caller through a bounded queue in chunks of up to
+ * {@value #CHUNK} lines, so parsing overlaps with execution, the two threads meet once per
+ * chunk rather than once per command, and at most {@value #QUEUED_CHUNKS} chunks are held
+ * in memory however long the script is. Blank lines are skipped. A line that fails to parse
+ * is passed on with its error, so it is reported in order with the rest of the script.
+ * </p>
+ */
+final class ScriptReader implements AutoCloseable {
+
+    /** Most lines parsed into one chunk. */
+    private static final int CHUNK = 512;
+
+    /** Most chunks waiting to be executed. */
+    private static final int QUEUED_CHUNKS = 64;
+
+    /** One line of the script, parsed. */
+    static final class Line {
+        final int number;
+        final Command command;
+        final Exception error;
+
+        Line(int number, Command command, Exception error) {
+            this.number = number;
+            this.command = command;
+            this.error = error;
+        }
+    }
+
+    /** Queued after the last chunk; carries the read error, if reading failed. */
+    private static final class End extends ArrayList<Line> {
+        private static final long serialVersionUID = 1L;
+
+        final IOException error;
+
+        End(IOException error) {
+            this.error = error;
+        }
+    }
+
+    private final BlockingQueue<List<Line>> queue = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+    private final Thread thread;
+    private boolean ended;
+
+    /**
+     * Starts reading and parsing the script.
+     *
+     * @param in the script; closed once it has been read
+     */
+    ScriptReader(BufferedReader in) {
+        thread = new Thread(() -> readAll(in), "resonant-script-parser");
+        // Reading from a terminal cannot be interrupted, so never let it keep the program alive.
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the next chunk of parsed lines, waiting for it if necessary.
+     *
+     * @return the lines in script order, or an empty list once the script has ended
+     * @throws IOException          if the script could not be read
+     * @throws InterruptedException if interrupted while waiting
+     */
+    List<Line> next() throws IOException, InterruptedException {
+        if (ended) {
+            return List.of();
+        }
+        List<Line> chunk = queue.take();
+        if (chunk instanceof End) {
+            ended = true;
+            if (((End) chunk).error != null) {
+                throw ((End) chunk).error;
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Stops parsing, for when the caller finishes before the end of the script.
+     */
+    @Override
+    public void close() {
+        thread.interrupt();
+    }
+
+    private void readAll(BufferedReader in) {
+        IOException error = null;
+        try (in) {
+            List<Line> chunk = new ArrayList<>(CHUNK);
+            int number = 0;
+            for (String text; (text = in.readLine()) != null; ) {
+                number++;
+                text = text.trim();
+                if (text.isEmpty()) {
+                    continue;
+                }
+                try {
+                    chunk.add(new Line(number, Parser.parse(text), null));
+                } catch (DukeException | RuntimeException e) {
+                    chunk.add(new Line(number, null, e));
+                }
+                if (chunk.size() == CHUNK) {
+                    queue.put(chunk);
+                    chunk = new ArrayList<>(CHUNK);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                queue.put(chunk);
+            }
+        } catch (IOException e) {
+            error = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            queue.put(new End(error));
+        } catch (InterruptedException e) {
+            // The caller has stopped reading.
+        }
+    }
+}
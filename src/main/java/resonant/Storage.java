@@ -1,31 +1,63 @@
 package resonant;
 
-import resonant.tasks.Deadline;
-import resonant.tasks.Event;
+import resonant.storage.Durability;
+import resonant.storage.BinaryFormat;
+import resonant.storage.GroupCommitWriter;
+import resonant.storage.PagedTaskList;
+import resonant.storage.PipeFormat;
+import resonant.storage.SegmentedStore;
+import resonant.storage.SnapshotFormat;
 import resonant.tasks.Task;
-import resonant.tasks.Todo;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32C;
 
 /**
  * Handles reading and writing of task data to persistent storage.
  * <p>
  * The {@code Storage} class is responsible for loading saved tasks from a file and
- * saving updated task lists back to disk. Tasks are stored in a simple pipe-delimited format,
- * compatible with previous Duke implementations.
+ * saving updated task lists back to disk. Snapshots are written in the compact
+ * {@link resonant.storage.BinaryFormat}, or in the legacy pipe-delimited
+ * {@link PipeFormat} for files ending in {@code .txt}.
  * </p>
  *
  * <p>
- * Example file contents:
- * <pre>
- * T | 1 | read book
- * D | 0 | submit report | 2025-10-10
- * E | 1 | attend meeting | 10am | 12pm
- * </pre>
+ * Names ending in {@code .seg} select a {@link SegmentedStore} instead, which needs no
+ * journal: each mutation rewrites only the segment file holding the affected task.
+ * </p>
+ *
+ * <p>
+ * Individual mutations are appended to a journal file next to the snapshot (see
+ * {@link JournalEntry}) rather than rewriting every task, and the journal is folded
+ * back into the snapshot once it grows large.
+ * </p>
+ *
+ * <p>
+ * Each journal record carries a sequence number and a checksum, and snapshots record the
+ * sequence number they were taken at as their checkpoint. Snapshots are written
+ * to a temporary file and renamed into place; the snapshot and journal they replace are
+ * kept with a {@code .prev} suffix. On load, the newest snapshot that passes its checksums
+ * is used, and only the journal records after its checkpoint are replayed. A torn record
+ * at the end of the journal, left by a crash during an append, is cut off.
+ * </p>
+ *
+ * <p>
+ * Binary snapshots of at least {@value #LAZY_LOAD_BYTES} bytes are not decoded on load.
+ * They are opened as a {@link PagedTaskList} instead, which decodes tasks only when they
+ * are accessed, so startup time and memory depend on the working set. Once a later snapshot
+ * of the list is on disk, the list is moved onto it, so the tasks changed in memory since
+ * loading do not pile up.
+ * </p>
+ *
+ * <p>
+ * All writes go through a {@link GroupCommitWriter}, so commands do not wait for the disk
+ * unless the {@link Durability#SYNC} mode is used. Call {@link #flush()} before exiting.
  * </p>
  */
 public class Storage {
@@ -36,144 +68,553 @@ public class Storage {
     /** The file where task data is saved. */
     private final Path dataFile;
 
+    /** The encoding used for {@link #dataFile}. */
+    private final SnapshotFormat format;
+
+    /** The append-only journal of mutations made since {@link #dataFile} was last written. */
+    private final Path journalFile;
+
+    /** When written data is forced to disk. */
+    private final Durability durability;
+
+    /** Minimum number of journal records before the journal is folded back into a snapshot. */
+    private static final int MIN_COMPACTION_RECORDS = 1000;
+
+    /** Snapshot size from which binary snapshots are paged in lazily rather than decoded up front. */
+    private static final long LAZY_LOAD_BYTES = 32L << 20;
+
+    /** Number of records currently in the journal. */
+    private int journalRecords;
+
+    /** Sequence number of the last journal record written or replayed. */
+    private long lastSeq;
+
+    /**
+     * Moves a paged list onto the snapshot last written from it. Set by the writer thread and
+     * run by the next {@link #append} or save, which own the list.
+     */
+    private final AtomicReference<Runnable> rebase = new AtomicReference<>();
+
+    /** Background thread that performs the actual file writes. */
+    private final GroupCommitWriter writer;
+
+    /** Whether mutations are held back from the journal and saved as snapshots instead. */
+    private boolean deferred;
+
+    /** Number of deferred mutations after which a snapshot is written, or 0 to wait for {@link #endDeferred}. */
+    private int checkpointEvery;
+
+    /** Number of mutations made since the last snapshot while deferred. */
+    private int pendingChanges;
+
+    /** Whether unreadable data files are still in place, so nothing may be written over them. */
+    private boolean unreadable;
+
+    /** Whether every record replayed since load began followed on from the one before it. */
+    private boolean contiguous;
+
     /**
      * Constructs a {@code Storage} instance with the given file path.
      * <p>
      * If the provided path is {@code null} or blank, a default file
-     * named {@code resonant.txt} will be used in the {@code data/} directory.
+     * named {@code resonant.dat} will be used in the {@code data/} directory.
      * </p>
      *
      * @param filePath the relative path to the storage file (can be {@code null})
      */
     public Storage(String filePath) {
+        this(filePath, Durability.BATCH);
+    }
+
+    /**
+     * Constructs a {@code Storage} instance with the given file path and durability mode.
+     *
+     * @param filePath   the relative path to the storage file (can be {@code null})
+     * @param durability when written data is forced to disk
+     */
+    public Storage(String filePath, Durability durability) {
         this.dataDir = Paths.get("data");
-        this.dataFile = dataDir.resolve(filePath == null || filePath.isBlank() ? "resonant.txt" : filePath);
+        this.dataFile = dataDir.resolve(filePath == null || filePath.isBlank() ? "resonant.dat" : filePath);
+        this.journalFile = journalFor(dataFile);
+        this.durability = durability;
+        this.format = SnapshotFormat.forFile(dataFile, durability);
+        this.writer = new GroupCommitWriter(journalFile, previous(journalFile), durability);
     }
 
     /**
      * Loads all tasks from the data file into memory.
      * <p>
-     * This method reads the file line-by-line, parses each entry, and reconstructs
-     * the appropriate {@link Task} objects (e.g. {@link Todo}, {@link Deadline}, {@link Event}).
-     * If the file does not exist, it will create the required directories and return an empty list.
+     * This method reads the snapshot file with its {@link SnapshotFormat}, which reconstructs
+     * the appropriate {@link Task} objects, and then replays any mutations recorded in the
+     * journal since the snapshot was written. If the data file does not exist yet but a
+     * legacy {@code .txt} file of the same name does, it is migrated first. If neither exists,
+     * the required directories are created and an empty list is returned.
+     * </p>
+     *
+     * <p>
+     * If the snapshot is missing or damaged, the previous snapshot is used instead and
+     * brought up to date from the previous journal as well as the current one. If no snapshot
+     * can be read, the list is rebuilt from the journals alone. Either way the journal records
+     * must carry on without a gap from the checkpoint they are replayed onto, and reach at
+     * least as far as the damaged snapshot did. Otherwise the data files are renamed with a
+     * {@code .damaged} suffix before the error is thrown, so the caller can start afresh
+     * without overwriting them.
+     * </p>
+     *
+     * <p>
+     * Large binary snapshots are returned as a {@link PagedTaskList}; wrap the result with
+     * {@link TaskList#backedBy} to keep it lazy.
      * </p>
      *
      * @return a list of {@link Task} objects loaded from the file
-     * @throws IOException if an I/O error occurs while reading or creating the file
+     * @throws IOException if an I/O error occurs while reading or creating the file, or if
+     *                     every available snapshot is damaged
      */
     public List<Task> load() throws IOException {
-        if (Files.notExists(dataFile)) {
-            if (Files.notExists(dataDir)) Files.createDirectories(dataDir);
-            return List.of();
+        // Until loading succeeds, whatever is on disk must not be written over.
+        unreadable = true;
+        if (Files.notExists(dataDir)) Files.createDirectories(dataDir);
+        if (Files.notExists(dataFile) && Files.notExists(previous(dataFile)) && Files.notExists(journalFile)) {
+            migrateLegacy();
         }
-        List<String> lines = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
-        List<Task> tasks = new ArrayList<>();
-
-        for (String raw : lines) {
-            String line = raw.trim();
-            if (line.isEmpty()) continue;
-
-            // Expected formats:
-            // T | 1 | desc
-            // D | 0 | desc | by
-            // E | 1 | desc | from | to
-            String[] parts = line.split("\\|");
-            if (parts.length < 3) continue;
+        Files.deleteIfExists(tempFor(dataFile));
 
+        List<Task> tasks = null;
+        long checkpoint = SnapshotFormat.NO_CHECKPOINT;
+        IOException damaged = null;
+        // The newest checkpoint among the snapshots that could not be read, where their headers
+        // still could be; whatever replaces them has to reach at least that far.
+        long mustReach = 0;
+        for (Path snapshot : List.of(dataFile, previous(dataFile))) {
+            if (Files.notExists(snapshot)) continue;
+            long found = SnapshotFormat.NO_CHECKPOINT;
             try {
-                String type = parts[0].trim();
-                boolean done = "1".equals(parts[1].trim());
-                switch (type) {
-                    case "T" -> {
-                        String desc = joinRest(parts, 2);
-                        if (!desc.isEmpty()) {
-                            Task t = new Todo(desc);
-                            if (done) t.mark();
-                            tasks.add(t);
-                        }
-                    }
-                    case "D" -> {
-                        if (parts.length >= 4) {
-                            String desc = parts[2].trim();
-                            String by = joinRest(parts, 3);
-                            Task t = new Deadline(desc, by);
-                            if (done) t.mark();
-                            tasks.add(t);
-                        }
-                    }
-                    case "E" -> {
-                        if (parts.length >= 5) {
-                            String desc = parts[2].trim();
-                            String from = parts[3].trim();
-                            String to = joinRest(parts, 4);
-                            Task t = new Event(desc, from, to);
-                            if (done) t.mark();
-                            tasks.add(t);
-                        }
-                    }
-                    default -> { /* no-op for unknown types */}
-                }
-            } catch (Exception ignored) {
-                // Skip malformed lines gracefully
+                found = format.checkpoint(snapshot);
+                tasks = readSnapshot(snapshot);
+                checkpoint = found;
+                break;
+            } catch (IOException e) {
+                if (damaged == null) damaged = e;
+                mustReach = Math.max(mustReach, found);
             }
         }
+        boolean rebuilding = false;
+        if (tasks == null) {
+            tasks = new ArrayList<>();
+            if (damaged != null) {
+                // No snapshot can be trusted, so rebuild from nothing. That is only complete if
+                // the journals still hold every record from the first one on.
+                rebuilding = true;
+                checkpoint = 0;
+            }
+        }
+
+        journalRecords = 0;
+        lastSeq = Math.max(checkpoint, 0);
+        contiguous = true;
+        if (checkpoint != SnapshotFormat.NO_CHECKPOINT) {
+            replay(previous(journalFile), tasks, checkpoint);
+        }
+        long valid = replay(journalFile, tasks, checkpoint);
+        // Journal records name task positions, so on top of an older snapshot or an empty list
+        // they are only meaningful if they carry on exactly from its checkpoint.
+        if (damaged != null && (checkpoint == SnapshotFormat.NO_CHECKPOINT || !contiguous
+                || lastSeq < mustReach || (rebuilding && lastSeq == 0))) {
+            setAside();
+            unreadable = false;
+            lastSeq = 0;
+            journalRecords = 0;
+            throw damaged;
+        }
+        if (Files.exists(journalFile) && valid < Files.size(journalFile)) {
+            try (FileChannel ch = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+                ch.truncate(valid);
+            }
+        }
+        unreadable = false;
         return tasks;
     }
 
     /**
-     * Saves the given list of tasks to the storage file.
+     * Reads one snapshot file, paging large binary snapshots in lazily.
+     *
+     * @param snapshot the snapshot file
+     * @return the tasks it contains
+     * @throws IOException if the file cannot be read or fails its checksums
+     */
+    private List<Task> readSnapshot(Path snapshot) throws IOException {
+        if (format instanceof BinaryFormat && Files.size(snapshot) >= LAZY_LOAD_BYTES) {
+            return PagedTaskList.open(snapshot);
+        }
+        return format.read(snapshot);
+    }
+
+    /**
+     * Saves the given list of tasks to the storage file as a fresh snapshot.
      * <p>
-     * Each task is serialized into a pipe-delimited line and written to disk.
+     * The tasks are copied and handed to the background writer, which encodes them with the
+     * snapshot format and then discards the journal, since the snapshot already contains its
+     * mutations. Single-file snapshots are written to a temporary file that then replaces the
+     * old one, so a paged list can keep reading the old file while the new one is written.
      * If the storage directory does not exist, it will be created automatically.
      * </p>
      *
      * @param tasks the list of tasks to save
      * @throws IOException if an I/O error occurs while writing the file
      */
-    public void save(List<Task> tasks) throws IOException {
+    public void save(TaskList tasks) throws IOException {
+        // The list may hold changes that no journal record describes, so the snapshot takes a
+        // sequence number of its own. The gap it leaves tells load() that the journals alone
+        // cannot rebuild the list.
+        saveAt(tasks, ++lastSeq);
+    }
+
+    /** Queues a snapshot of {@code tasks} that reflects every journal record up to {@code checkpoint}. */
+    private void saveAt(TaskList tasks, long checkpoint) throws IOException {
+        requireWritable();
+        if (Files.notExists(dataDir)) Files.createDirectories(dataDir);
+        rebasePaged();
+
+        PagedTaskList paged = tasks.paged();
+        if (paged != null && format instanceof BinaryFormat) {
+            PagedTaskList copy = paged.snapshot();
+            writer.snapshot(() -> {
+                writeSnapshot(copy, checkpoint);
+                PagedTaskList written = PagedTaskList.open(dataFile);
+                rebase.set(() -> paged.rebase(copy, written));
+            });
+        } else {
+            List<Task> copy = tasks.snapshot();
+            writer.snapshot(() -> writeSnapshot(copy, checkpoint));
+        }
+        journalRecords = 0;
+    }
+
+    /**
+     * Moves a paged list onto the newest snapshot written from it, if one has been written
+     * since this was last called, so that the tasks it changed in memory and the file it was
+     * loaded from can be released.
+     */
+    private void rebasePaged() {
+        Runnable pending = rebase.getAndSet(null);
+        if (pending != null) {
+            pending.run();
+        }
+    }
+
+    /**
+     * Writes a snapshot, replacing single-file snapshots atomically and keeping the old one
+     * as the previous snapshot. Runs on the writer thread.
+     *
+     * @param tasks      the tasks to write
+     * @param checkpoint the sequence number of the last journal record reflected in {@code tasks}
+     * @throws IOException if the snapshot cannot be written
+     */
+    private void writeSnapshot(List<Task> tasks, long checkpoint) throws IOException {
+        if (format instanceof SegmentedStore) {
+            format.write(dataFile, tasks);
+            return;
+        }
+        Path tmp = tempFor(dataFile);
+        format.write(tmp, tasks, checkpoint);
+        if (durability != Durability.PERIODIC) {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ch.force(true);
+            }
+        }
+        if (Files.exists(dataFile)) {
+            Files.move(dataFile, previous(dataFile), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(tmp, dataFile, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Records a single mutation by appending it to the journal.
+     * <p>
+     * Only the one entry is queued for writing, so the cost does not depend on the number of tasks.
+     * Once the journal holds more records than there are tasks (and at least
+     * {@value #MIN_COMPACTION_RECORDS}), it is compacted by writing a fresh snapshot of
+     * {@code current}, which keeps the amortized cost per mutation constant.
+     * </p>
+     *
+     * @param entry   the mutation that has just been applied to {@code current}
+     * @param current the task list after the mutation, used if the journal is compacted
+     * @throws IOException if an I/O error occurs while writing the journal or snapshot
+     */
+    public void append(JournalEntry entry, TaskList current) throws IOException {
+        requireWritable();
         if (Files.notExists(dataDir)) Files.createDirectories(dataDir);
+        rebasePaged();
+
+        if (deferred) {
+            pendingChanges++;
+            if (checkpointEvery > 0 && pendingChanges >= checkpointEvery) {
+                checkpoint(current);
+            }
+            return;
+        }
 
-        List<String> lines = new ArrayList<>(tasks.size());
-        for (Task t : tasks) {
-            boolean done = t.isDone();
-            if (t instanceof Todo) {
-                Todo todo = (Todo) t;
-                lines.add(String.join(" | ", "T", done ? "1" : "0", todo.description()));
-            } else if (t instanceof Deadline) {
-                Deadline d = (Deadline) t;
-                lines.add(String.join(" | ", "D", done ? "1" : "0", d.description(), d.by()));
-            } else if (t instanceof Event) {
-                Event e = (Event) t;
-                lines.add(String.join(" | ", "E", done ? "1" : "0", e.description(), e.from(), e.to()));
-            } else {
-                lines.add(String.join(" | ", "T", done ? "1" : "0", t.description()));
+        if (format instanceof SegmentedStore) {
+            applyToSegments((SegmentedStore) format, entry, current);
+            return;
+        }
+
+        writer.append(frame(++lastSeq, entry));
+        journalRecords++;
+        if (journalRecords >= Math.max(MIN_COMPACTION_RECORDS, current.size())) {
+            saveAt(current, lastSeq);
+        }
+    }
+
+    /**
+     * Stops journaling individual mutations, for running a long batch of commands.
+     * <p>
+     * Until {@link #endDeferred} is called, {@link #append} only counts mutations, and the
+     * task list is saved as a whole snapshot every {@code checkpointEvery} of them. A crash
+     * loses at most the mutations since the last checkpoint, but a batch of a million
+     * commands costs a handful of snapshot writes rather than a million journal records.
+     * </p>
+     *
+     * @param checkpointEvery the number of mutations between snapshots, or 0 to save only at the end
+     */
+    public void beginDeferred(int checkpointEvery) {
+        this.deferred = true;
+        this.checkpointEvery = checkpointEvery;
+        this.pendingChanges = 0;
+    }
+
+    /**
+     * Saves any mutations made since the last checkpoint and resumes journaling them one by one.
+     *
+     * @param current the task list after the batch
+     * @throws IOException if the snapshot cannot be queued
+     */
+    public void endDeferred(TaskList current) throws IOException {
+        checkpoint(current);
+        deferred = false;
+    }
+
+    /** Saves a snapshot if any mutation has been deferred since the last one. */
+    private void checkpoint(TaskList current) throws IOException {
+        if (pendingChanges > 0) {
+            save(current);
+            pendingChanges = 0;
+        }
+    }
+
+    /**
+     * Queues a mutation to be applied directly to the affected segment.
+     *
+     * @param segments the segmented store
+     * @param entry    the mutation that has just been applied to {@code current}
+     * @param current  the task list after the mutation
+     * @throws IOException if a previous write failed
+     */
+    private void applyToSegments(SegmentedStore segments, JournalEntry entry, TaskList current)
+            throws IOException {
+        int[] indices = entry.indices();
+        switch (entry.op()) {
+            case ADD -> {
+                Task t = entry.task();
+                writer.execute(() -> segments.add(t));
+            }
+            case MARK, UNMARK -> {
+                int[] positions = new int[indices.length];
+                Task[] changed = new Task[indices.length];
+                List<Task> tasks = current.asList();
+                for (int k = 0; k < indices.length; k++) {
+                    positions[k] = indices[k] - 1;
+                    changed[k] = tasks.get(positions[k]);
+                }
+                writer.execute(() -> segments.set(positions, changed));
             }
+            case DELETE -> {
+                int[] positions = new int[indices.length];
+                for (int k = 0; k < indices.length; k++) {
+                    positions[k] = indices[k] - 1;
+                }
+                writer.execute(() -> segments.remove(positions));
+            }
+            default -> throw new IllegalStateException("Unknown journal operation " + entry.op());
         }
-        Files.write(
-                dataFile,
-                lines,
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING
-        );
     }
 
     /**
-     * Joins all array elements starting from the given index using {@code " | "} as a separator.
+     * Blocks until every queued write has reached the disk.
+     *
+     * @throws IOException if any queued write failed
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Flushes all queued writes and stops the background writer.
+     *
+     * @throws IOException if any queued write failed
+     */
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Converts a legacy pipe-delimited data file into this storage's format.
      * <p>
-     * This helper is used when reconstructing task fields (e.g. descriptions that may contain delimiters).
+     * The legacy file is the one with the same name but a {@code .txt} extension. Its snapshot
+     * and journal are loaded, written out in the current format, and then renamed with a
+     * {@code .migrated} suffix so the migration runs only once.
      * </p>
      *
-     * @param parts the split string array
-     * @param start the starting index for concatenation
-     * @return a trimmed string consisting of all joined parts
+     * @throws IOException if the legacy file cannot be read or the new snapshot cannot be written
      */
-    private static String joinRest(String[] parts, int start) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = start; i < parts.length; i++) {
-            if (i > start) sb.append(" | ");
-            sb.append(parts[i].trim());
+    private void migrateLegacy() throws IOException {
+        String name = dataFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        Path legacy = dataFile.resolveSibling((dot < 0 ? name : name.substring(0, dot)) + ".txt");
+        if (format instanceof PipeFormat || Files.notExists(legacy)) {
+            return;
+        }
+        Path legacyJournal = journalFor(legacy);
+        PipeFormat legacyFormat = new PipeFormat();
+        List<Task> tasks = legacyFormat.read(legacy);
+        replay(legacyJournal, tasks, legacyFormat.checkpoint(legacy));
+        // Like save(), the snapshot takes a sequence number of its own, so that the new journal
+        // alone can never pass for the whole history if the snapshot is later damaged.
+        writeSnapshot(tasks, ++lastSeq);
+
+        Files.move(legacy, legacy.resolveSibling(legacy.getFileName() + ".migrated"),
+                StandardCopyOption.REPLACE_EXISTING);
+        if (Files.exists(legacyJournal)) {
+            Files.move(legacyJournal, legacyJournal.resolveSibling(legacyJournal.getFileName() + ".migrated"),
+                    StandardCopyOption.REPLACE_EXISTING);
         }
-        return sb.toString();
+    }
+
+    private void requireWritable() throws IOException {
+        if (unreadable) {
+            throw new IOException("Saved tasks could not be read, so changes are not being saved over them.");
+        }
+    }
+
+    /**
+     * Renames every data file with a {@code .damaged} suffix, so that nothing is written on
+     * top of data that could not be read and the files are kept for manual recovery.
+     *
+     * @throws IOException if a file cannot be renamed
+     */
+    private void setAside() throws IOException {
+        for (Path p : List.of(dataFile, previous(dataFile), journalFile, previous(journalFile))) {
+            if (Files.exists(p)) {
+                Files.move(p, p.resolveSibling(p.getFileName() + ".damaged"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Replays the records of a journal file that come after a checkpoint.
+     * <p>
+     * Replay stops at the first record that is incomplete or fails its checksum, since
+     * nothing written after a torn record can be trusted. Unnumbered lines from journals
+     * written before records carried sequence numbers are applied unconditionally.
+     * </p>
+     *
+     * @param journal the journal file, which may not exist
+     * @param tasks   the tasks to apply the records to
+     * @param after   the checkpoint; only records with a higher sequence number are applied
+     * @return the length in bytes of the intact part of the journal
+     * @throws IOException if the journal exists but cannot be read
+     */
+    private long replay(Path journal, List<Task> tasks, long after) throws IOException {
+        if (Files.notExists(journal)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(journal);
+        int start = 0;
+        while (start < bytes.length) {
+            int end = start;
+            while (end < bytes.length && bytes[end] != '\n') end++;
+            if (end == bytes.length) {
+                break;
+            }
+            if (!applyRecord(new String(bytes, start, end - start, StandardCharsets.UTF_8), tasks, after)) {
+                break;
+            }
+            start = end + 1;
+        }
+        return start;
+    }
+
+    /**
+     * Applies one journal line produced by {@link #frame}.
+     *
+     * @return {@code false} if the line is damaged
+     */
+    private boolean applyRecord(String line, List<Task> tasks, long after) {
+        if (line.isEmpty() || !Character.isDigit(line.charAt(0))) {
+            JournalEntry e = JournalEntry.decode(line);
+            if (e != null) {
+                e.applyTo(tasks);
+                journalRecords++;
+                // An unnumbered record cannot be placed relative to a checkpoint.
+                contiguous = false;
+            }
+            return true;
+        }
+        int seqEnd = line.indexOf(' ');
+        int crcEnd = seqEnd < 0 ? -1 : line.indexOf(' ', seqEnd + 1);
+        if (crcEnd < 0) {
+            return false;
+        }
+        try {
+            long seq = Long.parseLong(line.substring(0, seqEnd));
+            int crc = (int) Long.parseLong(line.substring(seqEnd + 1, crcEnd), 16);
+            String payload = line.substring(crcEnd + 1);
+            JournalEntry e = JournalEntry.decode(payload);
+            if (crc != checksum(seq, payload) || e == null) {
+                return false;
+            }
+            if (seq > after) {
+                if (seq != lastSeq + 1) {
+                    contiguous = false;
+                }
+                e.applyTo(tasks);
+                journalRecords++;
+            }
+            lastSeq = Math.max(lastSeq, seq);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Encodes a journal record as {@code <seq> <crc> <entry>} followed by a newline.
+     *
+     * @param seq   the record's sequence number
+     * @param entry the mutation
+     * @return the UTF-8 bytes to append to the journal
+     */
+    private static byte[] frame(long seq, JournalEntry entry) {
+        String payload = entry.encode();
+        return (seq + " " + String.format("%08x", checksum(seq, payload)) + " " + payload + "\n")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(long seq, String payload) {
+        CRC32C crc = new CRC32C();
+        crc.update((seq + " " + payload).getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+    private static Path journalFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".journal");
+    }
+
+    private static Path previous(Path file) {
+        return file.resolveSibling(file.getFileName() + ".prev");
+    }
+
+    private static Path tempFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
     }
 }
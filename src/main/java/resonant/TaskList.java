@@ -1,29 +1,152 @@
 package resonant;
 
+import resonant.index.DoneBits;
+import resonant.index.DueIndex;
+import resonant.index.IntervalIndex;
+import resonant.index.TaskIds;
+import resonant.index.TokenIndex;
+import resonant.index.TrigramIndex;
+import resonant.storage.PagedTaskList;
+import resonant.tasks.BulkRemovable;
+import resonant.tasks.CompactTaskList;
+import resonant.tasks.Deadline;
+import resonant.tasks.Event;
+import resonant.tasks.Snapshottable;
 import resonant.tasks.Task;
+import resonant.tasks.TreeTaskList;
 
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Represents a dynamic list of {@link Task} objects managed by the user.
  * <p>
  * The {@code TaskList} class provides high-level operations for adding,
  * retrieving, removing, and searching tasks. It enforces constraints such as
- * valid index access and a maximum task count of 100.
+ * valid index access and an optional maximum task count.
+ * </p>
+ *
+ * <p>
+ * Searches use indexes that are built on the first search that needs them and then kept
+ * up to date as tasks are added and removed: a {@link TokenIndex} for whole words and a
+ * {@link TrigramIndex} for keywords of three or more characters. Status and due-time
+ * queries likewise use a {@link DoneBits} bitset of done flags and a sorted {@link DueIndex},
+ * and event overlap queries an {@link IntervalIndex}.
+ * </p>
+ *
+ * <p>
+ * A list created with {@link Backend#CONCURRENT} may be shared between threads. Writers
+ * are serialized by a lock and update a {@link TreeTaskList}, then publish an O(1) snapshot
+ * of it through a volatile field. Readers only ever see a published snapshot, so they never
+ * block and never observe a half-applied change. Tasks are replaced rather than modified in
+ * place, and searches scan the snapshot since the indexes are not thread-safe.
  * </p>
  */
 public class TaskList {
 
+    /** Limit value meaning that any number of tasks may be added. */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    /** The in-memory layouts a {@code TaskList} can keep its tasks in. */
+    public enum Backend {
+        /** An ordinary list of task objects, or the lazily paged list the tasks were loaded as. */
+        ARRAY,
+        /** A {@link CompactTaskList}, which keeps tasks in primitive arrays to save memory. */
+        COMPACT,
+        /** A {@link TreeTaskList}, where inserting and deleting at any position takes O(log n). */
+        TREE,
+        /** A {@link TreeTaskList} that may be read by many threads while one thread writes. */
+        CONCURRENT;
+
+        /**
+         * Parses a backend name as given on the command line.
+         *
+         * @param name the name, e.g. {@code "tree"}
+         * @return the backend
+         * @throws IllegalArgumentException if the name is not a known backend
+         */
+        public static Backend parse(String name) {
+            for (Backend b : values()) {
+                if (b.name().equalsIgnoreCase(name)) {
+                    return b;
+                }
+            }
+            throw new IllegalArgumentException(
+                    "Unknown backend '" + name + "'. Use array, compact, tree or concurrent.");
+        }
+
+        /**
+         * Returns a modifiable list in this layout holding the given tasks.
+         *
+         * @param loaded the tasks, e.g. as returned by {@link Storage#load()}
+         * @return {@code loaded} itself for {@link #ARRAY}, otherwise a copy
+         */
+        public List<Task> adopt(List<Task> loaded) {
+            return switch (this) {
+                case COMPACT -> new CompactTaskList(loaded);
+                case TREE, CONCURRENT -> new TreeTaskList(loaded);
+                default -> loaded;
+            };
+        }
+    }
+
     /** The internal modifiable list of tasks. */
     private final List<Task> tasks;
 
+    /** The maximum number of tasks the list accepts. */
+    private final int limit;
+
+    /** Stable ids of the tasks, by position; {@code null} until an index is first needed. */
+    private TaskIds ids;
+
+    /** Word index over task descriptions, keyed by {@link #ids}. */
+    private TokenIndex words;
+
+    /** Trigram index over task descriptions, keyed by {@link #ids}. */
+    private TrigramIndex trigrams;
+
+    /** Due-time index over deadlines, keyed by {@link #ids}. */
+    private DueIndex dues;
+
+    /** Interval tree over event time spans, keyed by {@link #ids}. */
+    private IntervalIndex spans;
+
+    /** Number of removed tasks whose ids are still in {@link #words}. */
+    private int staleIds;
+
+    /** Done flags of the tasks, by position; {@code null} until a status is first queried. */
+    private DoneBits doneBits;
+
+    /** Serializes writers of a concurrent list; {@code null} if the list is not shared. */
+    private final ReentrantLock writeLock;
+
+    /** The state readers of a concurrent list see, replaced after every write. */
+    private volatile TreeTaskList published;
+
+    /** Versions of the list before recent changes, newest first; {@code null} unless undo is enabled. */
+    private ArrayDeque<TreeTaskList> undoVersions;
+
+    /** Versions that have been undone and can be redone, newest first. */
+    private ArrayDeque<TreeTaskList> redoVersions;
+
+    /** Most versions kept in {@link #undoVersions}. */
+    private int historyDepth;
+
     /**
      * Constructs an empty {@code TaskList}.
      */
     public TaskList() {
         this.tasks = new ArrayList<>();
+        this.limit = UNLIMITED;
+        this.writeLock = null;
     }
 
     /**
@@ -36,6 +159,66 @@ public class TaskList {
      */
     public TaskList(List<Task> initial) {
         this.tasks = new ArrayList<>(initial == null ? List.of() : initial);
+        this.limit = UNLIMITED;
+        this.writeLock = null;
+    }
+
+    /**
+     * Constructs a {@code TaskList} that uses the given list directly as its storage.
+     *
+     * @param backing    the modifiable list to adopt; a {@link TreeTaskList} if {@code concurrent}
+     * @param limit      the maximum number of tasks
+     * @param concurrent whether the list is shared between threads
+     */
+    private TaskList(List<Task> backing, int limit, boolean concurrent) {
+        this.tasks = backing;
+        this.limit = limit;
+        this.writeLock = concurrent ? new ReentrantLock() : null;
+        if (concurrent) {
+            this.published = ((TreeTaskList) backing).snapshot();
+        }
+    }
+
+    /**
+     * Creates a {@code TaskList} that operates on the given list without copying it.
+     * <p>
+     * This lets a lazily loaded list such as a {@link PagedTaskList} stay lazy; copying it
+     * would decode every task up front.
+     * </p>
+     *
+     * @param backing the modifiable list to adopt
+     * @return a task list backed by {@code backing}
+     */
+    public static TaskList backedBy(List<Task> backing) {
+        return new TaskList(backing, UNLIMITED, false);
+    }
+
+    /**
+     * Creates a {@code TaskList} that operates on the given list without copying it and
+     * refuses to grow beyond {@code limit} tasks.
+     * <p>
+     * The backing list may be one created by {@link Backend#adopt}. A list loaded with more
+     * than {@code limit} tasks is kept as it is.
+     * </p>
+     *
+     * @param backing the modifiable list to adopt
+     * @param limit   the maximum number of tasks, or {@link #UNLIMITED}
+     * @return a task list backed by {@code backing}
+     */
+    public static TaskList backedBy(List<Task> backing, int limit) {
+        return new TaskList(backing, limit, false);
+    }
+
+    /**
+     * Creates a {@code TaskList} holding the loaded tasks in the given layout.
+     *
+     * @param backend the in-memory layout
+     * @param loaded  the tasks, e.g. as returned by {@link Storage#load()}
+     * @param limit   the maximum number of tasks, or {@link #UNLIMITED}
+     * @return the task list
+     */
+    public static TaskList create(Backend backend, List<Task> loaded, int limit) {
+        return new TaskList(backend.adopt(loaded), limit, backend == Backend.CONCURRENT);
     }
 
     /**
@@ -44,7 +227,38 @@ public class TaskList {
      * @return the number of tasks
      */
     public int size() {
-        return tasks.size();
+        return view().size();
+    }
+
+    /**
+     * Returns a task list for a read-only command to query.
+     * <p>
+     * For a concurrent list this is a list over the latest published snapshot, so that every
+     * size, count and task the command reads comes from the same version even while writers
+     * commit. For any other list it is this list itself.
+     * </p>
+     *
+     * @return a task list that does not change while it is read
+     */
+    public TaskList readView() {
+        return writeLock == null ? this : backedBy(published);
+    }
+
+    /** Returns the list to read from: the latest published snapshot if the list is shared. */
+    private List<Task> view() {
+        return writeLock == null ? tasks : published;
+    }
+
+    private void lockWrites() {
+        if (writeLock != null) writeLock.lock();
+    }
+
+    /** Publishes the result of a write to readers, if the list is shared, and releases the lock. */
+    private void unlockWrites() {
+        if (writeLock != null) {
+            published = ((TreeTaskList) tasks).snapshot();
+            writeLock.unlock();
+        }
     }
 
     /**
@@ -58,27 +272,87 @@ public class TaskList {
      * @throws DukeException if the index is out of range
      */
     public Task get(int index1Based) throws DukeException {
+        List<Task> view = view();
         int i = index1Based - 1;
-        if (i < 0 || i >= tasks.size()) {
-            throw new DukeException("Task number " + index1Based + " is out of range. You have " + size() + " task(s).");
+        if (i < 0 || i >= view.size()) {
+            throw new DukeException("Task number " + index1Based + " is out of range. You have " + view.size() + " task(s).");
+        }
+        return view.get(i);
+    }
+
+    /**
+     * Marks the task at the given 1-based index as done.
+     * <p>
+     * The task is written back to the list afterwards, so that the change is kept by
+     * lists that decode tasks on demand.
+     * </p>
+     *
+     * @param index1Based the position of the task
+     * @return the marked {@link Task}
+     * @throws DukeException if the index is out of range
+     */
+    public Task mark(int index1Based) throws DukeException {
+        return setDone(index1Based, true);
+    }
+
+    /**
+     * Marks the task at the given 1-based index as not done.
+     *
+     * @param index1Based the position of the task
+     * @return the unmarked {@link Task}
+     * @throws DukeException if the index is out of range
+     * @see #mark(int)
+     */
+    public Task unmark(int index1Based) throws DukeException {
+        return setDone(index1Based, false);
+    }
+
+    private Task setDone(int index1Based, boolean done) throws DukeException {
+        lockWrites();
+        try {
+            Task t = get(index1Based);
+            remember();
+            if (writeLock != null || undoVersions != null) {
+                // Readers or earlier versions may still hold the task, so replace it instead.
+                t = t.copy();
+            }
+            if (done) t.mark(); else t.unmark();
+            tasks.set(index1Based - 1, t);
+            if (doneBits != null) doneBits.set(index1Based - 1, done);
+            return t;
+        } finally {
+            unlockWrites();
         }
-        return tasks.get(i);
     }
 
     /**
      * Adds a new task to the list.
      * <p>
-     * The list has a hard limit of 100 tasks to prevent unbounded growth.
+     * If the list was created with a limit, it refuses to grow beyond it.
      * </p>
      *
      * @param t the {@link Task} to add
-     * @throws DukeException if the task list already contains 100 items
+     * @throws DukeException if the task list has already reached its limit
      */
     public void add(Task t) throws DukeException {
-        if (tasks.size() >= 100) {
-            throw new DukeException("Your task list is full (100 items). Consider deleting some tasks.");
+        lockWrites();
+        try {
+            if (tasks.size() >= limit) {
+                throw new DukeException("Your task list is full (" + limit + " items). Consider deleting some tasks.");
+            }
+            remember();
+            tasks.add(t);
+            if (ids != null) {
+                int id = ids.append();
+                if (words != null) words.add(id, t.description());
+                if (trigrams != null) trigrams.add(id, t.description());
+                if (dues != null) dues.add(id, dueOf(t));
+                if (spans != null) addSpan(spans, id, t);
+            }
+            if (doneBits != null) doneBits.add(t.isDone());
+        } finally {
+            unlockWrites();
         }
-        tasks.add(t);
     }
 
     /**
@@ -89,37 +363,620 @@ public class TaskList {
      * @throws DukeException if the index is out of range
      */
     public Task remove(int index1Based) throws DukeException {
-        Task t = get(index1Based);
-        tasks.remove(index1Based - 1);
-        return t;
+        lockWrites();
+        try {
+            Task t = get(index1Based);
+            remember();
+            tasks.remove(index1Based - 1);
+            if (ids != null) {
+                ids.remove(index1Based - 1);
+                staleIds++;
+            }
+            if (doneBits != null) doneBits.remove(index1Based - 1);
+            return t;
+        } finally {
+            unlockWrites();
+        }
+    }
+
+    /**
+     * Marks several tasks as done in one batch.
+     * <p>
+     * Every position is checked before any task is changed, so a bad position leaves the
+     * list untouched.
+     * </p>
+     *
+     * @param indices1Based the positions of the tasks (1-based), in increasing order
+     * @return the updated tasks, in the same order
+     * @throws DukeException if any position is out of range
+     */
+    public List<Task> markAll(int[] indices1Based) throws DukeException {
+        return setDoneAll(indices1Based, true);
+    }
+
+    /**
+     * Marks several tasks as not done in one batch, checking every position first.
+     *
+     * @param indices1Based the positions of the tasks (1-based), in increasing order
+     * @return the updated tasks, in the same order
+     * @throws DukeException if any position is out of range
+     */
+    public List<Task> unmarkAll(int[] indices1Based) throws DukeException {
+        return setDoneAll(indices1Based, false);
+    }
+
+    private List<Task> setDoneAll(int[] indices1Based, boolean done) throws DukeException {
+        lockWrites();
+        try {
+            checkRange(indices1Based);
+            remember();
+            List<Task> out = new ArrayList<>(indices1Based.length);
+            for (int index : indices1Based) {
+                Task t = tasks.get(index - 1);
+                if (writeLock != null || undoVersions != null) {
+                    t = t.copy();
+                }
+                if (done) t.mark(); else t.unmark();
+                tasks.set(index - 1, t);
+                if (doneBits != null) doneBits.set(index - 1, done);
+                out.add(t);
+            }
+            return out;
+        } finally {
+            unlockWrites();
+        }
+    }
+
+    /**
+     * Removes several tasks in one batch and returns them.
+     * <p>
+     * Positions refer to the list before any removal. The remaining tasks are moved up in a
+     * single pass, and the search and status indexes are rebuilt the next time they are needed
+     * instead of being updated once per task.
+     * </p>
+     *
+     * @param indices1Based the positions of the tasks (1-based), in increasing order
+     * @return the removed tasks, in list order
+     * @throws DukeException if any position is out of range, in which case nothing is removed
+     */
+    public List<Task> removeAll(int[] indices1Based) throws DukeException {
+        lockWrites();
+        try {
+            checkRange(indices1Based);
+            remember();
+            List<Task> removed = new ArrayList<>(indices1Based.length);
+            int[] positions = new int[indices1Based.length];
+            for (int k = 0; k < positions.length; k++) {
+                positions[k] = indices1Based[k] - 1;
+                removed.add(tasks.get(positions[k]));
+            }
+            removePositions(tasks, positions);
+            dropIndexes();
+            return removed;
+        } finally {
+            unlockWrites();
+        }
+    }
+
+    /**
+     * Starts keeping earlier versions of the list so that changes can be undone and redone.
+     * <p>
+     * Each change first saves the current version, an O(1) {@link TreeTaskList#snapshot()},
+     * so a version costs only the O(log n) tree nodes its change copies. Tasks are replaced
+     * rather than changed in place while history is kept, so earlier versions keep their
+     * tasks' old status. The list must use a tree layout ({@link Backend#TREE} or
+     * {@link Backend#CONCURRENT}).
+     * </p>
+     *
+     * @param depth the most changes that can be undone
+     * @throws IllegalStateException if the list does not use a tree layout
+     */
+    public void enableHistory(int depth) {
+        if (!(tasks instanceof TreeTaskList)) {
+            throw new IllegalStateException("Undo needs the tree or concurrent backend.");
+        }
+        lockWrites();
+        try {
+            undoVersions = new ArrayDeque<>();
+            redoVersions = new ArrayDeque<>();
+            historyDepth = depth;
+        } finally {
+            unlockWrites();
+        }
+    }
+
+    /**
+     * Returns whether changes to this list can be undone.
+     *
+     * @return {@code true} if {@link #enableHistory(int)} has been called
+     */
+    public boolean hasHistory() {
+        return undoVersions != null;
+    }
+
+    /**
+     * Reverts the most recent change that has not been undone.
+     *
+     * @return {@code false} if there is no change left to undo
+     */
+    public boolean undo() {
+        return step(undoVersions, redoVersions);
+    }
+
+    /**
+     * Reapplies the most recently undone change.
+     * <p>
+     * Any other change made after an undo discards the changes that could be redone.
+     * </p>
+     *
+     * @return {@code false} if there is no undone change to redo
+     */
+    public boolean redo() {
+        return step(redoVersions, undoVersions);
+    }
+
+    /**
+     * Returns the number of changes that can currently be undone.
+     *
+     * @return the number of changes, 0 if undo is not enabled
+     */
+    public int undoCount() {
+        if (undoVersions == null) {
+            return 0;
+        }
+        lockWrites();
+        try {
+            return undoVersions.size();
+        } finally {
+            unlockWrites();
+        }
+    }
+
+    /**
+     * Returns the number of undone changes that can currently be redone.
+     *
+     * @return the number of changes, 0 if undo is not enabled
+     */
+    public int redoCount() {
+        if (redoVersions == null) {
+            return 0;
+        }
+        lockWrites();
+        try {
+            return redoVersions.size();
+        } finally {
+            unlockWrites();
+        }
+    }
+
+    /**
+     * Returns the most changes that can be undone.
+     *
+     * @return the history depth, 0 if undo is not enabled
+     */
+    public int historyDepth() {
+        return historyDepth;
+    }
+
+    /**
+     * Estimates the heap taken by the versions kept for undo and redo, beyond the current list.
+     *
+     * @return the estimated number of bytes, 0 if undo is not enabled
+     */
+    public long historyBytes() {
+        if (undoVersions == null) {
+            return 0;
+        }
+        lockWrites();
+        try {
+            List<TreeTaskList> versions = new ArrayList<>(undoVersions);
+            versions.addAll(redoVersions);
+            return ((TreeTaskList) tasks).retainedBytes(versions);
+        } finally {
+            unlockWrites();
+        }
+    }
+
+    /** Saves the current version before a change, if history is kept, and forgets undone changes. */
+    private void remember() {
+        if (undoVersions == null) {
+            return;
+        }
+        undoVersions.push(((TreeTaskList) tasks).snapshot());
+        if (undoVersions.size() > historyDepth) {
+            undoVersions.removeLast();
+        }
+        redoVersions.clear();
+    }
+
+    /** Moves the current version onto {@code to} and reverts to the newest version in {@code from}. */
+    private boolean step(ArrayDeque<TreeTaskList> from, ArrayDeque<TreeTaskList> to) {
+        if (from == null) {
+            return false;
+        }
+        lockWrites();
+        try {
+            if (from.isEmpty()) {
+                return false;
+            }
+            TreeTaskList current = (TreeTaskList) tasks;
+            to.push(current.snapshot());
+            current.revertTo(from.pop());
+            dropIndexes();
+            return true;
+        } finally {
+            unlockWrites();
+        }
+    }
+
+    /** Discards the search and status indexes, to be rebuilt the next time they are needed. */
+    private void dropIndexes() {
+        ids = null;
+        words = null;
+        trigrams = null;
+        dues = null;
+        spans = null;
+        doneBits = null;
+        staleIds = 0;
+    }
+
+    private void checkRange(int[] indices1Based) throws DukeException {
+        for (int index : indices1Based) {
+            if (index < 1 || index > tasks.size()) {
+                throw new DukeException("Task number " + index + " is out of range. You have " + tasks.size() + " task(s).");
+            }
+        }
+    }
+
+    /**
+     * Removes the tasks at the given 0-based positions from {@code list}.
+     * <p>
+     * An {@link ArrayList} is compacted in one pass, and a {@link BulkRemovable} list removes
+     * them in one pass of its own; other lists have their tasks removed from the highest
+     * position down.
+     * </p>
+     *
+     * @param list      the list to modify
+     * @param positions distinct positions within the list, in increasing order
+     */
+    static void removePositions(List<Task> list, int[] positions) {
+        if (positions.length == 0) {
+            return;
+        }
+        if (list instanceof BulkRemovable) {
+            ((BulkRemovable) list).removePositions(positions);
+            return;
+        }
+        if (positions.length == 1 || !(list instanceof ArrayList)) {
+            for (int k = positions.length - 1; k >= 0; k--) {
+                list.remove(positions[k]);
+            }
+            return;
+        }
+        int size = list.size();
+        int write = positions[0];
+        int k = 0;
+        for (int read = positions[0]; read < size; read++) {
+            if (k < positions.length && positions[k] == read) {
+                k++;
+            } else {
+                list.set(write++, list.get(read));
+            }
+        }
+        list.subList(write, size).clear();
     }
 
     /**
      * Finds all tasks that contain the given keyword (case-insensitive) in their description.
+     * <p>
+     * Keywords of at least three characters are looked up in the trigram index, and only the
+     * candidates it returns are checked; shorter keywords are matched against every task,
+     * in parallel if the list is large (see {@link TaskScanner}).
+     * </p>
      *
      * @param keyword the search term to match against task descriptions
      * @return a list of matching {@link Task} objects; may be empty if no matches are found
      */
     public List<Task> find(String keyword) {
         String kw = keyword.toLowerCase();
+        if (kw.length() < TrigramIndex.GRAM || writeLock != null) {
+            return TaskScanner.find(view(), kw);
+        }
         List<Task> out = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t.description().toLowerCase().contains(kw)) {
+        int[] candidates = trigramIndex().candidates(kw);
+        for (int id : candidates) {
+            int pos = ids.positionOf(id);
+            if (pos < 0) continue;
+            Task t = tasks.get(pos);
+            if (TaskScanner.containsIgnoreCase(t.description(), kw)) {
                 out.add(t);
             }
         }
         return out;
     }
 
+    /**
+     * Finds all tasks whose descriptions contain all (or any) of the given words.
+     * <p>
+     * Unlike {@link #find}, this matches whole words only: {@code "book"} matches
+     * "read book" but not "notebook". Words are compared case-insensitively.
+     * </p>
+     *
+     * @param query    the words to look for; punctuation between them is ignored
+     * @param matchAll {@code true} to require every word, {@code false} to require at least one
+     * @return the matching tasks in list order; may be empty
+     */
+    public List<Task> findWords(String query, boolean matchAll) {
+        List<String> terms = TokenIndex.words(query);
+        if (writeLock != null) {
+            return scanWords(terms, matchAll);
+        }
+        int[] matches = matchAll ? wordIndex().all(terms) : wordIndex().any(terms);
+        List<Task> out = new ArrayList<>();
+        for (int id : matches) {
+            int pos = ids.positionOf(id);
+            if (pos >= 0) {
+                out.add(tasks.get(pos));
+            }
+        }
+        return out;
+    }
+
+    /** Matches whole words against every task of the current snapshot. */
+    private List<Task> scanWords(List<String> terms, boolean matchAll) {
+        List<Task> out = new ArrayList<>();
+        if (terms.isEmpty()) {
+            return out;
+        }
+        for (Task t : view()) {
+            Set<String> present = new HashSet<>(TokenIndex.words(t.description()));
+            boolean match = matchAll ? present.containsAll(terms) : terms.stream().anyMatch(present::contains);
+            if (match) {
+                out.add(t);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Returns the number of tasks that are marked as done.
+     * <p>
+     * After the first status query this is a counter kept up to date by every change.
+     * </p>
+     *
+     * @return the number of done tasks
+     */
+    public int doneCount() {
+        if (writeLock != null) {
+            int n = 0;
+            for (Task t : view()) {
+                if (t.isDone()) n++;
+            }
+            return n;
+        }
+        return doneBits().count();
+    }
+
+    /**
+     * Passes every task that is (or is not) done to {@code action}, with its 1-based position.
+     * <p>
+     * Only the positions whose done flag matches are visited, found by walking the bitset a
+     * word at a time.
+     * </p>
+     *
+     * @param done   {@code true} for done tasks, {@code false} for pending ones
+     * @param action receives each matching task and its position, in list order
+     */
+    public void forEachWithStatus(boolean done, ObjIntConsumer<Task> action) {
+        if (writeLock != null) {
+            List<Task> view = view();
+            for (int i = 0; i < view.size(); i++) {
+                Task t = view.get(i);
+                if (t.isDone() == done) action.accept(t, i + 1);
+            }
+            return;
+        }
+        DoneBits bits = doneBits();
+        for (int i = bits.next(0, done); i >= 0; i = bits.next(i + 1, done)) {
+            action.accept(tasks.get(i), i + 1);
+        }
+    }
+
+    /**
+     * Passes every deadline due in {@code [from, to)} to {@code action}, with its 1-based position.
+     * <p>
+     * Deadlines are visited in order of due time, found by a range scan of the due index.
+     * Deadlines whose due text is not a recognized date are never visited.
+     * </p>
+     *
+     * @param from   the earliest due time to include, or {@code null} for no lower bound
+     * @param to     the due time to stop before, or {@code null} for no upper bound
+     * @param action receives each matching deadline and its position
+     */
+    public void forEachDue(LocalDateTime from, LocalDateTime to, ObjIntConsumer<Task> action) {
+        if (writeLock != null) {
+            List<Task> view = view();
+            List<Integer> matches = new ArrayList<>();
+            for (int i = 0; i < view.size(); i++) {
+                LocalDateTime due = dueOf(view.get(i));
+                if (due != null && (from == null || !due.isBefore(from)) && (to == null || due.isBefore(to))) {
+                    matches.add(i);
+                }
+            }
+            matches.sort(Comparator.comparing((Integer i) -> dueOf(view.get(i))).thenComparing(i -> i));
+            for (int i : matches) {
+                action.accept(view.get(i), i + 1);
+            }
+            return;
+        }
+        for (int id : dueIndex().range(from, to)) {
+            int pos = ids.positionOf(id);
+            if (pos >= 0) {
+                action.accept(tasks.get(pos), pos + 1);
+            }
+        }
+    }
+
+    /**
+     * Passes every event whose time span overlaps {@code [from, to)} to {@code action}, with
+     * its 1-based position.
+     * <p>
+     * Events are visited in order of start time, found by a search of the interval tree that
+     * skips subtrees ending before {@code from}. Passing {@code from == to} visits the events
+     * taking place at that instant. Events whose times are not recognized dates never match.
+     * </p>
+     *
+     * @param from   the start of the span
+     * @param to     the end of the span, exclusive
+     * @param action receives each overlapping event and its position
+     */
+    public void forEachOverlapping(LocalDateTime from, LocalDateTime to, ObjIntConsumer<Task> action) {
+        if (writeLock != null) {
+            LocalDateTime end = to.isAfter(from) ? to : to.plusNanos(1);
+            List<Task> view = view();
+            List<Integer> matches = new ArrayList<>();
+            for (int i = 0; i < view.size(); i++) {
+                if (view.get(i) instanceof Event) {
+                    Event e = (Event) view.get(i);
+                    if (e.start() != null && e.start().isBefore(end) && e.end().isAfter(from)) {
+                        matches.add(i);
+                    }
+                }
+            }
+            matches.sort(Comparator.comparing((Integer i) -> ((Event) view.get(i)).start()).thenComparing(i -> i));
+            for (int i : matches) {
+                action.accept(view.get(i), i + 1);
+            }
+            return;
+        }
+        for (int id : spanIndex().overlapping(from, to)) {
+            int pos = ids.positionOf(id);
+            if (pos >= 0) {
+                action.accept(tasks.get(pos), pos + 1);
+            }
+        }
+    }
+
+    private static void addSpan(IntervalIndex index, int id, Task t) {
+        if (t instanceof Event) {
+            index.add(id, ((Event) t).start(), ((Event) t).end());
+        }
+    }
+
+    private static LocalDateTime dueOf(Task t) {
+        return t instanceof Deadline ? ((Deadline) t).due() : null;
+    }
+
+    /** Returns the done flags, recording them if needed. */
+    private DoneBits doneBits() {
+        if (doneBits == null) {
+            doneBits = new DoneBits(tasks);
+        }
+        return doneBits;
+    }
+
+    /**
+     * Returns the task ids, renumbering the tasks and dropping every index if there are none
+     * yet or if removed ids outnumber live ones.
+     */
+    private TaskIds ids() {
+        if (ids == null || staleIds > tasks.size()) {
+            ids = new TaskIds(tasks.size());
+            staleIds = 0;
+            words = null;
+            trigrams = null;
+            dues = null;
+            spans = null;
+        }
+        return ids;
+    }
+
+    /** Returns the word index, building it if needed. */
+    private TokenIndex wordIndex() {
+        TaskIds current = ids();
+        if (words == null) {
+            words = new TokenIndex();
+            for (int i = 0; i < tasks.size(); i++) {
+                words.add(current.idAt(i), tasks.get(i).description());
+            }
+        }
+        return words;
+    }
+
+    /** Returns the trigram index, building it if needed. */
+    private TrigramIndex trigramIndex() {
+        TaskIds current = ids();
+        if (trigrams == null) {
+            trigrams = new TrigramIndex();
+            for (int i = 0; i < tasks.size(); i++) {
+                trigrams.add(current.idAt(i), tasks.get(i).description());
+            }
+        }
+        return trigrams;
+    }
+
+    /** Returns the due-time index, building it if needed. */
+    private DueIndex dueIndex() {
+        TaskIds current = ids();
+        if (dues == null) {
+            dues = new DueIndex();
+            for (int i = 0; i < tasks.size(); i++) {
+                dues.add(current.idAt(i), dueOf(tasks.get(i)));
+            }
+        }
+        return dues;
+    }
+
+    /** Returns the event interval tree, building it if needed. */
+    private IntervalIndex spanIndex() {
+        TaskIds current = ids();
+        if (spans == null) {
+            spans = new IntervalIndex();
+            for (int i = 0; i < tasks.size(); i++) {
+                addSpan(spans, current.idAt(i), tasks.get(i));
+            }
+        }
+        return spans;
+    }
+
     /**
      * Returns an unmodifiable view of the internal task list.
      * <p>
-     * This ensures external classes cannot modify the list directly.
+     * This ensures external classes cannot modify the list directly. For a concurrent list
+     * the view is the latest published snapshot, which does not change while it is read.
      * </p>
      *
      * @return an unmodifiable {@link List} of tasks
      */
     public List<Task> asList() {
-        return Collections.unmodifiableList(tasks);
+        return Collections.unmodifiableList(view());
+    }
+
+    /**
+     * Returns the backing list if it pages tasks in from a snapshot file.
+     *
+     * @return the {@link PagedTaskList} this list operates on, or {@code null}
+     */
+    PagedTaskList paged() {
+        return tasks instanceof PagedTaskList ? (PagedTaskList) tasks : null;
+    }
+
+    /**
+     * Returns an immutable copy of the current tasks, e.g. for writing a snapshot.
+     * <p>
+     * Lists that are {@link Snapshottable}, such as a {@link PagedTaskList}, are copied by
+     * their underlying structure rather than task by task.
+     * </p>
+     *
+     * @return a list that does not change when this task list does
+     */
+    public List<Task> snapshot() {
+        if (writeLock != null) {
+            return Collections.unmodifiableList(published);
+        }
+        if (tasks instanceof Snapshottable) {
+            return Collections.unmodifiableList(((Snapshottable) tasks).snapshot());
+        }
+        return List.copyOf(tasks);
     }
 }
@@ -0,0 +1,151 @@
+package resonant;
+
+import resonant.storage.PagedTaskList;
+import resonant.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scans a task list for descriptions that contain a keyword, ignoring case.
+ * <p>
+ * Descriptions are matched in place with {@link String#regionMatches(boolean, int, String, int, int)},
+ * so no lowercased copy is made per task. Lists expected to take longer than
+ * {@value #PARALLEL_NANOS} ns to scan are split across the common {@link ForkJoinPool}, and
+ * the per-chunk results are joined back in list order. The expected time comes from the
+ * measured cost per task of recent sequential scans, so the size at which scans go
+ * parallel adapts to the machine and to how expensive the list's {@code get} is.
+ * </p>
+ */
+final class TaskScanner {
+
+    /** Expected sequential scan time above which a scan is split. */
+    static final long PARALLEL_NANOS = 1_000_000;
+
+    /** Fewest tasks a parallel chunk is given. */
+    private static final int MIN_CHUNK = 4096;
+
+    /** Moving average of the cost of matching one task sequentially. */
+    private static volatile double nanosPerTask = 50;
+
+    private TaskScanner() {
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain {@code keyword}, ignoring case, in list order.
+     *
+     * @param tasks   the tasks to scan; must not change during the scan
+     * @param keyword the keyword to look for
+     * @return the matching tasks
+     */
+    static List<Task> find(List<Task> tasks, String keyword) {
+        // Reading a paged list fills its page cache, which is not thread-safe.
+        if (ForkJoinPool.getCommonPoolParallelism() < 2 || tasks instanceof PagedTaskList
+                || tasks.size() * nanosPerTask < PARALLEL_NANOS) {
+            return sequential(tasks, keyword);
+        }
+        return parallel(tasks, keyword);
+    }
+
+    /**
+     * Scans the tasks in chunks on the common {@link ForkJoinPool}, whatever the list's size.
+     *
+     * @param tasks   the tasks to scan; {@code get} must be safe to call from several threads
+     * @param keyword the keyword to look for
+     * @return the matching tasks, in list order
+     */
+    static List<Task> parallel(List<Task> tasks, String keyword) {
+        int n = tasks.size();
+        int chunk = Math.max(MIN_CHUNK, n / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        return ForkJoinPool.commonPool().invoke(new Chunk(tasks, keyword, 0, n, chunk));
+    }
+
+    /**
+     * Scans every task on the calling thread, and updates the cost estimate.
+     *
+     * @param tasks   the tasks to scan
+     * @param keyword the keyword to look for
+     * @return the matching tasks
+     */
+    static List<Task> sequential(List<Task> tasks, String keyword) {
+        long start = System.nanoTime();
+        List<Task> out = new ArrayList<>();
+        scan(tasks, keyword, 0, tasks.size(), out);
+        if (tasks.size() >= MIN_CHUNK) {
+            double measured = (double) (System.nanoTime() - start) / tasks.size();
+            nanosPerTask = 0.75 * nanosPerTask + 0.25 * measured;
+        }
+        return out;
+    }
+
+    /**
+     * Returns whether {@code text} contains {@code keyword}, ignoring case.
+     *
+     * @param text    the text to search
+     * @param keyword the keyword to look for
+     * @return {@code true} if the keyword appears anywhere in the text
+     */
+    static boolean containsIgnoreCase(String text, String keyword) {
+        int len = keyword.length();
+        if (len == 0) {
+            return true;
+        }
+        // Only try a full match where the first character could match.
+        char first = keyword.charAt(0);
+        char lower = Character.toLowerCase(first);
+        char upper = Character.toUpperCase(first);
+        for (int i = 0, last = text.length() - len; i <= last; i++) {
+            char c = text.charAt(i);
+            if ((c == lower || c == upper || c >= 0x80) && text.regionMatches(true, i, keyword, 0, len)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void scan(List<Task> tasks, String keyword, int from, int to, List<Task> out) {
+        for (int i = from; i < to; i++) {
+            Task t = tasks.get(i);
+            if (containsIgnoreCase(t.description(), keyword)) {
+                out.add(t);
+            }
+        }
+    }
+
+    /** Scans {@code [from, to)}, splitting it in half until it is at most one chunk long. */
+    private static final class Chunk extends RecursiveTask<List<Task>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Task> tasks;
+        private final String keyword;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        Chunk(List<Task> tasks, String keyword, int from, int to, int chunk) {
+            this.tasks = tasks;
+            this.keyword = keyword;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected List<Task> compute() {
+            if (to - from <= chunk) {
+                List<Task> out = new ArrayList<>();
+                scan(tasks, keyword, from, to, out);
+                return out;
+            }
+            int mid = (from + to) >>> 1;
+            Chunk left = new Chunk(tasks, keyword, from, mid, chunk);
+            left.fork();
+            List<Task> right = new Chunk(tasks, keyword, mid, to, chunk).compute();
+            List<Task> out = left.join();
+            out.addAll(right);
+            return out;
+        }
+    }
+}
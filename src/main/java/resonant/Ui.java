@@ -1,6 +1,12 @@
 package resonant;
 
-import java.util.Scanner;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Handles all user interaction, including displaying messages,
@@ -10,11 +16,34 @@ import java.util.Scanner;
  * (welcome, error, goodbye), drawing separator lines, and boxing
  * text messages for consistent visual formatting in the console.
  * </p>
+ *
+ * <p>
+ * Output is rendered into a reusable buffer and written to standard output only when
+ * {@link #flush()} is called, once per command, through a stream that does not flush after
+ * every line. Output larger than the buffer is written through in pieces as it is produced,
+ * so even very long listings take a few large writes rather than one per line.
+ * </p>
  */
 public class Ui {
 
-    /** Scanner used to read user input from standard input (System.in). */
-    private final Scanner scanner;
+    /** Reads user input from standard input (System.in). */
+    private final LineReader reader;
+
+    /** Whether boxed output is currently suppressed. */
+    private boolean quiet;
+
+    /** Number of characters buffered before they are written through to {@link #out}. */
+    private static final int BUFFER_CHARS = 1 << 16;
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    private static final String LINE = "____________________________________________________________";
+
+    /** Output not yet written to {@link #out}. */
+    private final StringBuilder buffer = new StringBuilder(BUFFER_CHARS);
+
+    /** Buffered stream over standard output, flushed by {@link #flush()}. */
+    private final PrintStream out;
 
     private static final String LOGO =
             " ____                                     \n"
@@ -27,10 +56,43 @@ public class Ui {
 
 
     /**
-     * Constructs a {@code Ui} object and initializes the input scanner.
+     * Constructs a {@code Ui} object and initializes the input reader.
      */
     public Ui() {
-        this.scanner = new Scanner(System.in);
+        // Only an interactive terminal needs each write to appear at once.
+        this(new LineReader(System.in, Charset.defaultCharset()),
+                new PrintStream(new BufferedOutputStream(System.out, BUFFER_CHARS),
+                        System.console() != null, stdoutCharset()));
+    }
+
+    /**
+     * Constructs a {@code Ui} that talks to a remote user over the given streams, such as
+     * those of a network connection, in UTF-8.
+     *
+     * @param in  where the user's commands are read from
+     * @param out where output is written; it is written to only when {@link #flush()} is called
+     */
+    public Ui(InputStream in, OutputStream out) {
+        this(new LineReader(in, StandardCharsets.UTF_8),
+                new PrintStream(new BufferedOutputStream(out, BUFFER_CHARS), false, StandardCharsets.UTF_8));
+    }
+
+    private Ui(LineReader reader, PrintStream out) {
+        this.reader = reader;
+        this.out = out;
+    }
+
+    /**
+     * Returns the charset {@code System.out} encodes with, so the bytes written are the same
+     * as printing to it directly.
+     */
+    private static Charset stdoutCharset() {
+        String name = System.getProperty(Runtime.version().feature() >= 18 ? "stdout.encoding" : "sun.stdout.encoding");
+        try {
+            return name == null ? Charset.defaultCharset() : Charset.forName(name);
+        } catch (IllegalArgumentException e) {
+            return Charset.defaultCharset();
+        }
     }
 
     /**
@@ -40,7 +102,7 @@ public class Ui {
      * </p>
      */
     public void showWelcome() {
-        System.out.println(LOGO);
+        println(LOGO);
         box(" Hello! I'm Resonant", " What can I do for you?");
     }
 
@@ -48,10 +110,29 @@ public class Ui {
      * Reads a single line of user input, trims any leading and trailing spaces,
      * and returns it as a command string.
      *
-     * @return the trimmed user input command
+     * @return the trimmed user input command, or {@code null} once the input has ended or
+     *         can no longer be read
      */
     public String readCommand() {
-        return scanner.nextLine().trim();
+        try {
+            String line = reader.readLine();
+            return line == null ? null : line.trim();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Turns boxed output on or off.
+     * <p>
+     * While quiet, {@link #showLine()} and {@link #box(String...)} print nothing, so a script
+     * of commands can run without echoing a confirmation for each one.
+     * </p>
+     *
+     * @param quiet {@code true} to suppress output
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
     }
 
     /**
@@ -61,7 +142,10 @@ public class Ui {
      * </p>
      */
     public void showLine() {
-        System.out.println("____________________________________________________________");
+        if (quiet) {
+            return;
+        }
+        println(LINE);
     }
 
     /**
@@ -79,11 +163,13 @@ public class Ui {
     /**
      * Displays a message indicating that the saved data could not be loaded.
      * <p>
-     * This is typically called when the storage file is missing or corrupted.
+     * This is typically called when the storage file is corrupted. Damaged data files are
+     * renamed with a {@code .damaged} suffix rather than overwritten.
      * </p>
      */
     public void showLoadingError() {
-        box(" OOPS!!! Couldn't load saved tasks. Starting fresh.");
+        box(" OOPS!!! Couldn't load saved tasks. Starting fresh.",
+                " Any unreadable data files were kept with a .damaged suffix.");
     }
 
     /**
@@ -105,10 +191,75 @@ public class Ui {
      * @param lines one or more lines of text to display within the box
      */
     public void box(String... lines) {
+        if (quiet) {
+            return;
+        }
         showLine();
         for (String line : lines) {
-            System.out.println(line);
+            println(line);
         }
         showLine();
     }
+
+    /**
+     * Opens a box whose lines are then written one at a time with {@link #boxLine(String)}
+     * and which is closed with {@link #endBox()}.
+     * <p>
+     * Unlike {@link #box(String...)}, the lines need not all be built before printing, so a
+     * long listing is written out as it is produced and never held in memory as a whole.
+     * </p>
+     */
+    public void beginBox() {
+        showLine();
+    }
+
+    /**
+     * Writes one line of a box opened with {@link #beginBox()}.
+     *
+     * @param line the line to display
+     */
+    public void boxLine(String line) {
+        if (!quiet) {
+            println(line);
+        }
+    }
+
+    /**
+     * Closes a box opened with {@link #beginBox()}.
+     */
+    public void endBox() {
+        showLine();
+    }
+
+    /**
+     * Writes all buffered output to standard output.
+     * <p>
+     * Called once a command's output is complete, and before waiting for input.
+     * </p>
+     */
+    public void flush() {
+        drain();
+        out.flush();
+    }
+
+    /** Buffers {@code text} and a line separator, writing very long text straight through. */
+    private void println(String text) {
+        if (buffer.length() + text.length() > BUFFER_CHARS) {
+            drain();
+        }
+        if (text.length() >= BUFFER_CHARS) {
+            out.print(text);
+        } else {
+            buffer.append(text);
+        }
+        buffer.append(NEWLINE);
+    }
+
+    /** Hands the buffered text to {@link #out} and empties the buffer for reuse. */
+    private void drain() {
+        if (buffer.length() > 0) {
+            out.append(buffer);
+            buffer.setLength(0);
+        }
+    }
 }
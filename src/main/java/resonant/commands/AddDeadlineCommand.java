@@ -2,6 +2,7 @@ package resonant.commands;
 
 import resonant.*;
 import resonant.tasks.Deadline;
+import resonant.tasks.StringPool;
 
 /**
  * Represents a command that adds a {@link Deadline} task to the task list.
@@ -25,7 +26,7 @@ public class AddDeadlineCommand extends Command {
 
     /**
      * Executes the command by creating a new {@link Deadline} task,
-     * adding it to the task list, saving the updated list to storage,
+     * adding it to the task list, journaling the addition to storage,
      * and showing a confirmation message through the UI.
      *
      * @param tasks   The current {@link TaskList} to which the task will be added.
@@ -40,8 +41,9 @@ public class AddDeadlineCommand extends Command {
         if (by == null || by.isBlank())
             throw new DukeException("Missing '/by'. Usage: deadline <desc> /by <when>");
 
-        tasks.add(new Deadline(desc, by));
-        storage.save(tasks.asList());
+        Deadline d = new Deadline(StringPool.SHARED.intern(desc), StringPool.SHARED.intern(by));
+        tasks.add(d);
+        storage.append(JournalEntry.add(d), tasks);
         ui.box(" Got it. I've added this task:",
                 "   " + tasks.get(tasks.size()).toString(),
                 " Now you have " + tasks.size() + (tasks.size() == 1 ? " task" : " tasks") + " in the list.");
@@ -2,10 +2,16 @@ package resonant.commands;
 
 import resonant.*;
 import resonant.tasks.Event;
+import resonant.tasks.StringPool;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a command that adds an {@link Event} task to the task list.
  * An event includes a description, a start time, and an end time.
+ * If its times are recognized dates, any existing events it overlaps are listed
+ * as a warning; the event is added either way.
  */
 public class AddEventCommand extends Command {
     private final String desc;
@@ -28,7 +34,7 @@ public class AddEventCommand extends Command {
 
     /**
      * Executes the command by creating a new {@link Event} task,
-     * adding it to the {@link TaskList}, saving the updated list to {@link Storage},
+     * adding it to the {@link TaskList}, journaling the change to {@link Storage},
      * and displaying a confirmation message through the {@link Ui}.
      *
      * @param tasks   The current list of tasks.
@@ -46,10 +52,19 @@ public class AddEventCommand extends Command {
         if (to == null || to.isBlank())
             throw new DukeException("Missing '/to'. Usage: event <desc> /from <start> /to <end>");
 
-        tasks.add(new Event(desc, from, to));
-        storage.save(tasks.asList());
-        ui.box(" Got it. I've added this task:",
-                "   " + tasks.get(tasks.size()).toString(),
-                " Now you have " + tasks.size() + (tasks.size() == 1 ? " task" : " tasks") + " in the list.");
+        Event e = new Event(StringPool.SHARED.intern(desc), StringPool.SHARED.intern(from), StringPool.SHARED.intern(to));
+        List<String> lines = new ArrayList<>();
+        if (e.start() != null) {
+            tasks.forEachOverlapping(e.start(), e.end(), (t, i) -> lines.add("   " + i + "." + t));
+        }
+        tasks.add(e);
+        storage.append(JournalEntry.add(e), tasks);
+        if (!lines.isEmpty()) {
+            lines.add(0, " Heads up, it clashes with:");
+        }
+        lines.add(0, " Got it. I've added this task:");
+        lines.add(1, "   " + tasks.get(tasks.size()).toString());
+        lines.add(2, " Now you have " + tasks.size() + (tasks.size() == 1 ? " task" : " tasks") + " in the list.");
+        ui.box(lines.toArray(new String[0]));
     }
 }
@@ -1,6 +1,7 @@
 package resonant.commands;
 
 import resonant.*;
+import resonant.tasks.StringPool;
 import resonant.tasks.Todo;
 
 /**
@@ -21,7 +22,7 @@ public class AddTodoCommand extends Command {
 
     /**
      * Executes the command by creating a new {@link Todo} task,
-     * adding it to the {@link TaskList}, saving the updated list to {@link Storage},
+     * adding it to the {@link TaskList}, journaling the change to {@link Storage},
      * and displaying a confirmation message through the {@link Ui}.
      *
      * @param tasks   The current list of tasks.
@@ -34,8 +35,9 @@ public class AddTodoCommand extends Command {
         if (desc == null || desc.isBlank()) {
             throw new DukeException("A todo needs a description. Usage: todo <desc>");
         }
-        tasks.add(new Todo(desc));
-        storage.save(tasks.asList());
+        Todo t = new Todo(StringPool.SHARED.intern(desc));
+        tasks.add(t);
+        storage.append(JournalEntry.add(t), tasks);
         ui.box(" Got it. I've added this task:",
                 "   " + tasks.get(tasks.size()).toString(),
                 " Now you have " + tasks.size() + (tasks.size() == 1 ? " task" : " tasks") + " in the list.");
@@ -0,0 +1,65 @@
+package resonant.commands;
+
+import resonant.TaskList;
+import resonant.Ui;
+import resonant.Storage;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a command that lists the events taking place at a given time.
+ * <p>
+ * A date and time asks for the events in progress at that instant; a date alone asks for
+ * the events that overlap any part of that day. Matching events are shown in order of
+ * start time, numbered by their position in the full list.
+ */
+public class AtCommand extends Command {
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final String text;
+
+    /**
+     * Constructs an {@code AtCommand} for the events overlapping {@code [from, to)}, or
+     * containing {@code from} if the two are equal.
+     *
+     * @param from The start of the queried span.
+     * @param to   The end of the queried span, exclusive.
+     * @param text The time as the user typed it, for display.
+     */
+    public AtCommand(LocalDateTime from, LocalDateTime to, String text) {
+        this.from = from;
+        this.to = to;
+        this.text = text;
+    }
+
+    /**
+     * Executes the command by listing the matching events through the {@link Ui},
+     * or a message if there are none.
+     *
+     * @param tasks   The current list of tasks.
+     * @param ui      The user interface handler used to display results.
+     * @param storage The storage handler (not used in this command).
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        StringBuilder sb = new StringBuilder(" Here are the events on at " + text + ":");
+        int header = sb.length();
+        tasks.forEachOverlapping(from, to, (t, i) -> sb.append('\n').append(' ').append(i).append('.').append(t));
+        if (sb.length() == header) {
+            ui.box(" No events on at " + text + ".");
+            return;
+        }
+        ui.box(sb.toString());
+    }
+
+    /**
+     * Indicates that this command only reads the task list.
+     *
+     * @return {@code true}, since this command does not change the task list.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package resonant.commands;
+
+import resonant.*;
+import resonant.tasks.Task;
+
+import java.util.List;
+
+/**
+ * Represents a command that deletes several tasks at once, e.g. {@code delete 3,7,9-12}.
+ * <p>
+ * Task numbers refer to the list before the command. The tasks are removed in a single
+ * pass and recorded in {@link Storage} as one journal entry.
+ */
+public class BulkDeleteCommand extends Command {
+    private final int[] indices1Based;
+
+    /**
+     * Constructs a {@code BulkDeleteCommand} for the given tasks.
+     *
+     * @param indices1Based The 1-based positions of the tasks, in increasing order.
+     */
+    public BulkDeleteCommand(int[] indices1Based) {
+        this.indices1Based = indices1Based;
+    }
+
+    /**
+     * Executes the command by removing the tasks from the {@link TaskList}, journaling
+     * the batch to {@link Storage}, and listing the removed tasks through the {@link Ui}.
+     *
+     * @param tasks   The current list of tasks.
+     * @param ui      The user interface handler used to display messages.
+     * @param storage The storage handler used to persist the change.
+     * @throws Exception If any task number is out of range, or if saving fails.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws Exception {
+        List<Task> removed = tasks.removeAll(indices1Based);
+        storage.append(JournalEntry.delete(indices1Based), tasks);
+        StringBuilder sb = new StringBuilder(" Noted. I've removed these " + removed.size() + " tasks:");
+        for (Task t : removed) {
+            sb.append('\n').append("   ").append(t);
+        }
+        int n = tasks.size();
+        sb.append('\n').append(" Now you have ").append(n).append(' ').append(n == 1 ? "task" : "tasks")
+                .append(" in the list.");
+        ui.box(sb.toString());
+    }
+}
@@ -0,0 +1,50 @@
+package resonant.commands;
+
+import resonant.*;
+import resonant.tasks.Task;
+
+import java.util.List;
+
+/**
+ * Represents a command that marks several tasks as done, or as not done, at once,
+ * e.g. {@code mark 1-200} or {@code unmark 3,7}.
+ * <p>
+ * The tasks are updated as a single batch and recorded in {@link Storage} as one journal entry.
+ */
+public class BulkMarkCommand extends Command {
+    private final int[] indices1Based;
+    private final boolean done;
+
+    /**
+     * Constructs a {@code BulkMarkCommand} for the given tasks.
+     *
+     * @param indices1Based The 1-based positions of the tasks, in increasing order.
+     * @param done          {@code true} to mark the tasks as done, {@code false} for not done.
+     */
+    public BulkMarkCommand(int[] indices1Based, boolean done) {
+        this.indices1Based = indices1Based;
+        this.done = done;
+    }
+
+    /**
+     * Executes the command by updating every task in the {@link TaskList}, journaling
+     * the batch to {@link Storage}, and listing the updated tasks through the {@link Ui}.
+     *
+     * @param tasks   The current list of tasks.
+     * @param ui      The user interface handler used to display messages.
+     * @param storage The storage handler used to persist the change.
+     * @throws Exception If any task number is out of range, or if saving fails.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws Exception {
+        List<Task> changed = done ? tasks.markAll(indices1Based) : tasks.unmarkAll(indices1Based);
+        storage.append(done ? JournalEntry.mark(indices1Based) : JournalEntry.unmark(indices1Based), tasks);
+        StringBuilder sb = new StringBuilder(done
+                ? " Nice! I've marked these " + changed.size() + " tasks as done:"
+                : " OK, I've marked these " + changed.size() + " tasks as not done yet:");
+        for (Task t : changed) {
+            sb.append('\n').append("   ").append(t);
+        }
+        ui.box(sb.toString());
+    }
+}
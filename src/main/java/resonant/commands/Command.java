@@ -31,4 +31,18 @@ public abstract class Command {
     public boolean isExit() {
         return false;
     }
+
+    /**
+     * Determines whether this command only reads the task list.
+     * <p>
+     * Read-only commands may run alongside each other and alongside a command that changes
+     * the list, as long as the list is shared safely (see {@link TaskList.Backend#CONCURRENT});
+     * commands that change the list or write to {@link Storage} must run one at a time.
+     * By default, this method returns {@code false}.
+     *
+     * @return {@code true} if this command never changes the task list or storage; {@code false} otherwise.
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
 }
@@ -20,7 +20,7 @@ public class DeleteCommand extends Command {
 
     /**
      * Executes the command by removing the specified task from the {@link TaskList},
-     * saving the updated list to {@link Storage}, and displaying a confirmation message
+     * journaling the change to {@link Storage}, and displaying a confirmation message
      * through the {@link Ui}.
      *
      * @param tasks   The current list of tasks.
@@ -31,7 +31,7 @@ public class DeleteCommand extends Command {
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws Exception {
         var removed = tasks.remove(index1Based);
-        storage.save(tasks.asList());
+        storage.append(JournalEntry.delete(index1Based), tasks);
         int n = tasks.size();
         ui.box(" Noted. I've removed this task:",
                 "   " + removed,
@@ -0,0 +1,70 @@
+package resonant.commands;
+
+import resonant.TaskList;
+import resonant.Ui;
+import resonant.Storage;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a command that lists the deadlines due before and/or after a given time.
+ * <p>
+ * Matching deadlines are shown in order of due time, numbered by their position in the
+ * full list. Only deadlines whose due text is a recognized date can match.
+ */
+public class DueCommand extends Command {
+
+    private final LocalDateTime after;
+    private final String afterText;
+    private final LocalDateTime before;
+    private final String beforeText;
+
+    /**
+     * Constructs a {@code DueCommand} for deadlines due on or after {@code after} and
+     * strictly before {@code before}. Either bound may be {@code null}, but not both.
+     *
+     * @param after      The earliest due time to include, or {@code null}.
+     * @param afterText  The lower bound as the user typed it, for display.
+     * @param before     The due time to stop before, or {@code null}.
+     * @param beforeText The upper bound as the user typed it, for display.
+     */
+    public DueCommand(LocalDateTime after, String afterText, LocalDateTime before, String beforeText) {
+        this.after = after;
+        this.afterText = afterText;
+        this.before = before;
+        this.beforeText = beforeText;
+    }
+
+    /**
+     * Executes the command by listing the matching deadlines through the {@link Ui},
+     * or a message if there are none.
+     *
+     * @param tasks   The current list of tasks.
+     * @param ui      The user interface handler used to display results.
+     * @param storage The storage handler (not used in this command).
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        String range = after == null ? "due before " + beforeText
+                : before == null ? "due on or after " + afterText
+                : "due on or after " + afterText + " and before " + beforeText;
+        StringBuilder sb = new StringBuilder(" Here are the deadlines " + range + ":");
+        int header = sb.length();
+        tasks.forEachDue(after, before, (t, i) -> sb.append('\n').append(' ').append(i).append('.').append(t));
+        if (sb.length() == header) {
+            ui.box(" No deadlines " + range + ".");
+            return;
+        }
+        ui.box(sb.toString());
+    }
+
+    /**
+     * Indicates that this command only reads the task list.
+     *
+     * @return {@code true}, since this command does not change the task list.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -2,25 +2,29 @@ package resonant.commands;
 
 import resonant.*;
 
+import java.io.IOException;
+
 /**
  * Represents a command that exits the program.
  * <p>
- * When executed, this command displays a goodbye message
- * and signals to the main program loop that it should terminate.
+ * When executed, this command waits for pending writes to reach the disk, displays a
+ * goodbye message and signals to the main program loop that it should terminate.
  */
 public class ExitCommand extends Command {
 
     /**
-     * Executes the command by displaying a goodbye message to the user
-     * through the {@link Ui}. This method does not modify the {@link TaskList}
-     * or {@link Storage}.
+     * Executes the command by flushing pending writes in {@link Storage} and displaying
+     * a goodbye message to the user through the {@link Ui}. This method does not modify
+     * the {@link TaskList}.
      *
      * @param tasks   The current list of tasks (unused in this command).
      * @param ui      The user interface handler used to display messages.
-     * @param storage The storage handler (unused in this command).
+     * @param storage The storage handler whose pending writes are flushed.
+     * @throws IOException If a pending write could not be completed.
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws IOException {
+        storage.flush();
         ui.sayGoodbye();
     }
 
@@ -14,9 +14,24 @@ import java.util.List;
  * <p>
  * When executed, this command filters the task list to display only
  * the matching tasks, or shows a message if no matches are found.
+ * By default the keyword may match any part of a description; the word modes
+ * match whole words only, requiring all or any of several words.
+ * Matches are written to the {@link Ui} one line at a time as they are formatted.
  */
 public class FindCommand extends Command {
+
+    /** How the keyword is matched against task descriptions. */
+    public enum Mode {
+        /** The keyword may appear anywhere in the description. */
+        SUBSTRING,
+        /** Every word of the keyword must appear as a whole word. */
+        ALL_WORDS,
+        /** At least one word of the keyword must appear as a whole word. */
+        ANY_WORDS
+    }
+
     private final String keyword;
+    private final Mode mode;
 
     /**
      * Constructs a {@code FindCommand} with the given search keyword.
@@ -24,7 +39,18 @@ public class FindCommand extends Command {
      * @param keyword The keyword to search for within task descriptions.
      */
     public FindCommand(String keyword) {
+        this(keyword, Mode.SUBSTRING);
+    }
+
+    /**
+     * Constructs a {@code FindCommand} with the given search keyword and matching mode.
+     *
+     * @param keyword The keyword, or space-separated words, to search for.
+     * @param mode    How the keyword is matched.
+     */
+    public FindCommand(String keyword, Mode mode) {
         this.keyword = keyword;
+        this.mode = mode;
     }
 
     /**
@@ -44,17 +70,32 @@ public class FindCommand extends Command {
             throw new DukeException("Provide a keyword. Usage: find <keyword>");
         }
 
-        List<Task> matches = tasks.find(keyword);
+        List<Task> matches = switch (mode) {
+            case ALL_WORDS -> tasks.findWords(keyword, true);
+            case ANY_WORDS -> tasks.findWords(keyword, false);
+            default -> tasks.find(keyword);
+        };
         if (matches.isEmpty()) {
             ui.box(" No matching tasks found for \"" + keyword + "\".");
             return;
         }
 
-        StringBuilder sb = new StringBuilder(" Here are the matching tasks in your list:");
+        ui.beginBox();
+        ui.boxLine(" Here are the matching tasks in your list:");
         int i = 1;
         for (Task t : matches) {
-            sb.append('\n').append(' ').append(i++).append('.').append(t);
+            ui.boxLine(" " + i++ + "." + t);
         }
-        ui.box(sb.toString());
+        ui.endBox();
+    }
+
+    /**
+     * Indicates that this command only reads the task list.
+     *
+     * @return {@code true}, since this command does not change the task list.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 }
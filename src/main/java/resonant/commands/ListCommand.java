@@ -1,18 +1,79 @@
 package resonant.commands;
 
+import resonant.DukeException;
 import resonant.TaskList;
 import resonant.Ui;
 import resonant.Storage;
 import resonant.tasks.Task;
 
+import java.util.List;
+
 /**
  * Represents a command that lists all tasks currently stored in the {@link TaskList}.
  * <p>
  * When executed, this command displays each task in a numbered format.
  * If there are no tasks, it informs the user that the list is empty.
+ * It can also list only the done or only the pending tasks, numbered by their position
+ * in the full list so that they can be passed to {@code mark}, {@code unmark} or {@code delete}.
+ * <p>
+ * Tasks are written to the {@link Ui} one line at a time, so listing does not build the whole
+ * output in memory. A window of positions, such as one page, can be listed instead of the
+ * whole list; only the tasks in the window are visited.
  */
 public class ListCommand extends Command {
 
+    /** Which tasks are listed. */
+    public enum Filter {
+        /** Every task. */
+        ALL,
+        /** Only tasks marked as done. */
+        DONE,
+        /** Only tasks not yet done. */
+        PENDING
+    }
+
+    /** Number of tasks on a page when {@code list /page} is given no {@code /size}. */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final Filter filter;
+
+    /** First position listed, 1-based. */
+    private final int first;
+
+    /** Last position listed, inclusive; {@link Integer#MAX_VALUE} for the end of the list. */
+    private final int last;
+
+    /**
+     * Constructs a {@code ListCommand} that lists every task.
+     */
+    public ListCommand() {
+        this(Filter.ALL);
+    }
+
+    /**
+     * Constructs a {@code ListCommand} that lists the tasks selected by {@code filter}.
+     *
+     * @param filter Which tasks to list.
+     */
+    public ListCommand(Filter filter) {
+        this.filter = filter;
+        this.first = 1;
+        this.last = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Constructs a {@code ListCommand} that lists the tasks at positions {@code first} to
+     * {@code last} of the full list.
+     *
+     * @param first The first position to list, 1-based.
+     * @param last  The last position to list, inclusive; positions past the end are ignored.
+     */
+    public ListCommand(int first, int last) {
+        this.filter = Filter.ALL;
+        this.first = first;
+        this.last = last;
+    }
+
     /**
      * Executes the command by printing all tasks in the {@link TaskList}
      * to the user interface in a numbered list format.
@@ -22,18 +83,71 @@ public class ListCommand extends Command {
      * @param tasks   The current list of tasks.
      * @param ui      The user interface handler used to display messages.
      * @param storage The storage handler (not used in this command).
+     * @throws DukeException If a window is given that starts past the end of the list.
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
-        if (tasks.size() == 0) {
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws DukeException {
+        // One consistent version for the whole command, even if other sessions change the list.
+        TaskList view = tasks.readView();
+        if (filter != Filter.ALL) {
+            listByStatus(view, ui, filter == Filter.DONE);
+            return;
+        }
+        List<Task> all = view.asList();
+        if (all.isEmpty()) {
             ui.box(" Your list is empty.");
-        } else {
-            StringBuilder sb = new StringBuilder(" Here are the tasks in your list:");
-            int i = 1;
-            for (Task t : tasks.asList()) {
-                sb.append('\n').append(' ').append(i++).append('.').append(t);
-            }
-            ui.box(sb.toString());
+            return;
+        }
+        if (first > 1 || last < all.size()) {
+            listWindow(all, ui);
+            return;
+        }
+        ui.beginBox();
+        ui.boxLine(" Here are the tasks in your list:");
+        int i = 1;
+        for (Task t : all) {
+            ui.boxLine(" " + i++ + "." + t);
+        }
+        ui.endBox();
+    }
+
+    private void listWindow(List<Task> all, Ui ui) throws DukeException {
+        int size = all.size();
+        if (first > size) {
+            throw new DukeException("There " + (size == 1 ? "is only 1 task" : "are only " + size + " tasks")
+                    + " in your list, so there is nothing from task " + first + " onwards.");
+        }
+        int end = Math.min(last, size);
+        ui.beginBox();
+        ui.boxLine(" Here are tasks " + first + " to " + end + " of " + size + " in your list:");
+        for (int i = first; i <= end; i++) {
+            ui.boxLine(" " + i + "." + all.get(i - 1));
         }
+        ui.endBox();
+    }
+
+    private static void listByStatus(TaskList tasks, Ui ui, boolean done) {
+        String status = done ? "done" : "pending";
+        int total = tasks.size();
+        int matching = done ? tasks.doneCount() : total - tasks.doneCount();
+        String counts = " (" + matching + " of " + total + " " + status + ")";
+        if (matching == 0) {
+            ui.box(" No " + status + " tasks in your list" + counts + ".");
+            return;
+        }
+        ui.beginBox();
+        ui.boxLine(" Here are the " + status + " tasks in your list" + counts + ":");
+        tasks.forEachWithStatus(done, (t, i) -> ui.boxLine(" " + i + "." + t));
+        ui.endBox();
+    }
+
+    /**
+     * Indicates that this command only reads the task list.
+     *
+     * @return {@code true}, since this command does not change the task list.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 }
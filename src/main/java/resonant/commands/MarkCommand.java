@@ -6,7 +6,7 @@ import resonant.*;
  * Represents a command that marks a specified task in the {@link TaskList} as done.
  * <p>
  * When executed, this command updates the completion status of the task,
- * saves the updated task list to storage, and notifies the user through the UI.
+ * journals the change to storage, and notifies the user through the UI.
  */
 public class MarkCommand extends Command {
     private final int index1Based;
@@ -22,7 +22,7 @@ public class MarkCommand extends Command {
 
     /**
      * Executes the command by marking the specified task as done,
-     * saving the updated task list to {@link Storage},
+     * journaling the change to {@link Storage},
      * and displaying a confirmation message via the {@link Ui}.
      *
      * @param tasks   The current list of tasks.
@@ -32,9 +32,8 @@ public class MarkCommand extends Command {
      */
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws Exception {
-        var t = tasks.get(index1Based);
-        t.mark();
-        storage.save(tasks.asList());
+        var t = tasks.mark(index1Based);
+        storage.append(JournalEntry.mark(index1Based), tasks);
         ui.box(" Nice! I've marked this task as done:", "   " + t);
     }
 }
@@ -0,0 +1,57 @@
+package resonant.commands;
+
+import resonant.TaskList;
+import resonant.Ui;
+import resonant.Storage;
+import resonant.tasks.StringPool;
+
+/**
+ * Represents a command that reports how much memory the task list is using.
+ * <p>
+ * It shows the number of tasks, the heap in use, and what the shared {@link StringPool}
+ * has saved by storing repeated task text once. If undo is enabled, it also estimates
+ * what the versions kept for undo and redo cost beyond the current list.
+ */
+public class MemoryCommand extends Command {
+
+    /**
+     * Executes the command by displaying the memory report through the {@link Ui}.
+     *
+     * @param tasks   The current list of tasks.
+     * @param ui      The user interface handler used to display the report.
+     * @param storage The storage handler (not used in this command).
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        StringPool pool = StringPool.SHARED;
+        Runtime rt = Runtime.getRuntime();
+        long heapUsed = rt.totalMemory() - rt.freeMemory();
+        int size = tasks.size();
+        String header = " Memory report for " + size + (size == 1 ? " task:" : " tasks:");
+        String heap = "   Heap in use: " + kib(heapUsed);
+        String pooled = "   Distinct strings pooled: " + pool.distinct() + " (at most " + pool.capacity() + ")";
+        String merged = "   Duplicate strings merged: " + pool.merged() + ", saving about " + kib(pool.bytesSaved());
+        if (!tasks.hasHistory()) {
+            ui.box(header, heap, pooled, merged);
+            return;
+        }
+        int versions = tasks.undoCount() + tasks.redoCount();
+        ui.box(header, heap, pooled, merged,
+                "   Undo history: " + versions + (versions == 1 ? " version" : " versions") + " (at most "
+                        + tasks.historyDepth() + " to undo), about " + kib(tasks.historyBytes()));
+    }
+
+    private static String kib(long bytes) {
+        return (bytes + 1023) / 1024 + " KB";
+    }
+
+    /**
+     * Indicates that this command only reads the task list.
+     *
+     * @return {@code true}, since this command does not change the task list.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
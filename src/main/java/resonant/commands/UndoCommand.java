@@ -0,0 +1,47 @@
+package resonant.commands;
+
+import resonant.*;
+
+/**
+ * Represents a command that undoes the most recent change to the task list, or redoes the
+ * most recently undone one, e.g. {@code undo} or {@code redo}.
+ * <p>
+ * Undo is only available when Resonant was started with a history depth. Since the list may
+ * move back by any change, the result is saved to {@link Storage} as a fresh snapshot rather
+ * than as a journal entry.
+ */
+public class UndoCommand extends Command {
+    private final boolean redo;
+
+    /**
+     * Constructs an {@code UndoCommand}.
+     *
+     * @param redo {@code true} to redo an undone change, {@code false} to undo a change.
+     */
+    public UndoCommand(boolean redo) {
+        this.redo = redo;
+    }
+
+    /**
+     * Executes the command by stepping the {@link TaskList} back or forward one version,
+     * saving it to {@link Storage}, and reporting the result through the {@link Ui}.
+     *
+     * @param tasks   The current list of tasks.
+     * @param ui      The user interface handler used to display messages.
+     * @param storage The storage handler used to persist the restored list.
+     * @throws Exception If undo is not enabled, there is nothing to undo or redo, or saving fails.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws Exception {
+        if (!tasks.hasHistory()) {
+            throw new DukeException("Undo is not enabled. Start Resonant with --history N to keep the last N changes.");
+        }
+        if (!(redo ? tasks.redo() : tasks.undo())) {
+            throw new DukeException(redo ? "Nothing to redo." : "Nothing to undo.");
+        }
+        storage.save(tasks);
+        ui.box(redo ? " Redone. I've reapplied your last undone change." : " Undone. I've reverted your last change.",
+                " Now you have " + tasks.size() + (tasks.size() == 1 ? " task" : " tasks") + " in the list"
+                        + " (" + tasks.undoCount() + " more to undo, " + tasks.redoCount() + " to redo).");
+    }
+}
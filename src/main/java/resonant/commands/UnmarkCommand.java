@@ -6,7 +6,7 @@ import resonant.*;
  * Represents a command that marks a specified task in the {@link TaskList} as not done.
  * <p>
  * When executed, this command updates the task's completion status to "not done",
- * saves the modified task list to storage, and informs the user via the {@link Ui}.
+ * journals the change to storage, and informs the user via the {@link Ui}.
  */
 public class UnmarkCommand extends Command {
     private final int index1Based;
@@ -22,7 +22,7 @@ public class UnmarkCommand extends Command {
 
     /**
      * Executes the command by marking the specified task as not done,
-     * saving the updated task list to {@link Storage},
+     * journaling the change to {@link Storage},
      * and displaying a confirmation message through the {@link Ui}.
      *
      * @param tasks   The current list of tasks.
@@ -32,9 +32,8 @@ public class UnmarkCommand extends Command {
      */
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws Exception {
-        var t = tasks.get(index1Based);
-        t.unmark();
-        storage.save(tasks.asList());
+        var t = tasks.unmark(index1Based);
+        storage.append(JournalEntry.unmark(index1Based), tasks);
         ui.box(" OK, I've marked this task as not done yet:", "   " + t);
     }
 }
@@ -0,0 +1,121 @@
+package resonant.index;
+
+import resonant.tasks.Task;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the done flag of every position of a task list in a bitset, with a running count.
+ * <p>
+ * Listing only the done or pending tasks walks the set (or clear) bits of the word array,
+ * skipping 64 positions per empty word, instead of asking every task whether it is done.
+ * Deleting a task shifts the bits after it down by one, a word at a time.
+ * </p>
+ */
+public class DoneBits {
+
+    private long[] words;
+    private int size;
+    private int count;
+
+    /**
+     * Records the done flags of the given tasks, in order.
+     *
+     * @param tasks the tasks of the list
+     */
+    public DoneBits(List<Task> tasks) {
+        this.words = new long[Math.max(1, (tasks.size() + 63) >>> 6)];
+        for (Task t : tasks) {
+            add(t.isDone());
+        }
+    }
+
+    /**
+     * Returns the number of positions.
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of done positions.
+     *
+     * @return the number of set bits
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Records a task appended at the end of the list.
+     *
+     * @param done whether the task is done
+     */
+    public void add(boolean done) {
+        if ((size >>> 6) == words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        size++;
+        set(size - 1, done);
+    }
+
+    /**
+     * Records the done flag of the task at a 0-based position.
+     *
+     * @param position the position
+     * @param done     whether the task there is done
+     */
+    public void set(int position, boolean done) {
+        long bit = 1L << position;
+        boolean was = (words[position >>> 6] & bit) != 0;
+        if (was == done) {
+            return;
+        }
+        words[position >>> 6] ^= bit;
+        count += done ? 1 : -1;
+    }
+
+    /**
+     * Forgets the task at a 0-based position, shifting later positions down by one.
+     *
+     * @param position the position of the removed task
+     */
+    public void remove(int position) {
+        set(position, false);
+        int w = position >>> 6;
+        int last = (size - 1) >>> 6;
+        long below = (1L << position) - 1;
+        long next = w < last ? words[w + 1] << 63 : 0;
+        words[w] = (words[w] & below) | ((words[w] >>> 1) & ~below) | next;
+        for (int i = w + 1; i <= last; i++) {
+            words[i] = (words[i] >>> 1) | (i < last ? words[i + 1] << 63 : 0);
+        }
+        size--;
+    }
+
+    /**
+     * Returns the first position at or after {@code from} whose flag equals {@code done}.
+     *
+     * @param from the 0-based position to start at
+     * @param done whether to look for a done or a pending position
+     * @return the position, or {@code -1} if there is none
+     */
+    public int next(int from, boolean done) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = (done ? words[w] : ~words[w]) & (-1L << from);
+        while (word == 0) {
+            if (++w > (size - 1) >>> 6) {
+                return -1;
+            }
+            word = done ? words[w] : ~words[w];
+        }
+        int position = (w << 6) + Long.numberOfTrailingZeros(word);
+        return position < size ? position : -1;
+    }
+}
@@ -0,0 +1,65 @@
+package resonant.index;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A sorted index from due time to the ids of the deadlines due then.
+ * <p>
+ * Only deadlines whose due text is a recognized date are indexed. A range query finds its
+ * first due time in O(log n) and then walks the {@code k} matching entries in due order.
+ * Like the other indexes, removed ids are not deleted; callers skip ids that no longer map
+ * to a position.
+ * </p>
+ */
+public class DueIndex {
+
+    private final NavigableMap<LocalDateTime, Postings> byDue = new TreeMap<>();
+
+    /**
+     * Indexes a deadline.
+     *
+     * @param id  the id of the task
+     * @param due its due time, or {@code null} to leave it out
+     */
+    public void add(int id, LocalDateTime due) {
+        if (due != null) {
+            byDue.computeIfAbsent(due, k -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Returns the ids of deadlines due in {@code [from, to)}, ordered by due time.
+     *
+     * @param from the earliest due time to include, or {@code null} for no lower bound
+     * @param to   the due time to stop before, or {@code null} for no upper bound
+     * @return the matching ids; ids due at the same time are in increasing order
+     */
+    public int[] range(LocalDateTime from, LocalDateTime to) {
+        NavigableMap<LocalDateTime, Postings> range = byDue;
+        if (from != null && to != null) {
+            if (!from.isBefore(to)) {
+                return Postings.NONE;
+            }
+            range = byDue.subMap(from, true, to, false);
+        } else if (from != null) {
+            range = byDue.tailMap(from, true);
+        } else if (to != null) {
+            range = byDue.headMap(to, false);
+        }
+        int[] out = Postings.NONE;
+        int n = 0;
+        for (Map.Entry<LocalDateTime, Postings> e : range.entrySet()) {
+            int[] ids = e.getValue().toArray();
+            if (n + ids.length > out.length) {
+                out = Arrays.copyOf(out, Math.max(n + ids.length, out.length * 2));
+            }
+            System.arraycopy(ids, 0, out, n, ids.length);
+            n += ids.length;
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
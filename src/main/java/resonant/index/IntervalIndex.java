@@ -0,0 +1,145 @@
+package resonant.index;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * An interval tree over the time spans of events, keyed by task id.
+ * <p>
+ * Intervals are half-open, {@code [start, end)}, and are kept in an AVL tree ordered by
+ * start (then id). Every node also records the latest end in its subtree, so a query
+ * skips any subtree that finishes before the queried span begins and, being ordered by
+ * start, stops descending once starts pass its end. Finding the {@code k} intervals that
+ * overlap a span therefore takes about O(log n + k) rather than a pass over every event.
+ * Like the other indexes, removed ids are not deleted; callers skip ids that no longer map
+ * to a position.
+ * </p>
+ */
+public class IntervalIndex {
+
+    private static final class Node {
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final int id;
+        LocalDateTime maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(LocalDateTime start, LocalDateTime end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+
+    /**
+     * Indexes the span of an event.
+     *
+     * @param id    the id of the task
+     * @param start its start, or {@code null} to leave it out
+     * @param end   its end, exclusive
+     */
+    public void add(int id, LocalDateTime start, LocalDateTime end) {
+        if (start != null && end != null) {
+            root = insert(root, new Node(start, end, id));
+        }
+    }
+
+    /**
+     * Returns the ids of the intervals that overlap {@code [from, to)}, ordered by start.
+     * <p>
+     * Passing {@code from == to} asks for the intervals that contain that instant.
+     * </p>
+     *
+     * @param from the start of the span
+     * @param to   the end of the span, exclusive
+     * @return the matching ids
+     */
+    public int[] overlapping(LocalDateTime from, LocalDateTime to) {
+        int[][] out = { new int[16] };
+        int n = collect(root, from, to.isAfter(from) ? to : to.plusNanos(1), out, 0);
+        return Arrays.copyOf(out[0], n);
+    }
+
+    private static int collect(Node node, LocalDateTime from, LocalDateTime to, int[][] out, int n) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return n;
+        }
+        n = collect(node.left, from, to, out, n);
+        if (!node.start.isBefore(to)) {
+            return n;
+        }
+        if (node.end.isAfter(from)) {
+            if (n == out[0].length) {
+                out[0] = Arrays.copyOf(out[0], n * 2);
+            }
+            out[0][n++] = node.id;
+        }
+        return collect(node.right, from, to, out, n);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        int c = added.start.compareTo(node.start);
+        if (c < 0 || (c == 0 && added.id < node.id)) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node l = node.left;
+        node.left = l.right;
+        l.right = node;
+        update(node);
+        update(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node r = node.right;
+        node.right = r.left;
+        r.left = node;
+        update(node);
+        update(r);
+        return r;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime max = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(max)) max = node.left.maxEnd;
+        if (node.right != null && node.right.maxEnd.isAfter(max)) max = node.right.maxEnd;
+        node.maxEnd = max;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+}
@@ -0,0 +1,85 @@
+package resonant.index;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of task ids in increasing order, as stored for one index key.
+ */
+final class Postings {
+
+    static final int[] NONE = new int[0];
+
+    private int[] ids = new int[4];
+    private int length;
+
+    /**
+     * Appends an id, which must not be smaller than the last one. Repeats are ignored.
+     *
+     * @param id the task id
+     */
+    void add(int id) {
+        if (length > 0 && ids[length - 1] == id) {
+            return;
+        }
+        if (length == ids.length) {
+            ids = Arrays.copyOf(ids, length * 2);
+        }
+        ids[length++] = id;
+    }
+
+    int length() {
+        return length;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, length);
+    }
+
+    /**
+     * Keeps the ids of {@code sorted} that are also in this list, binary-searching this
+     * list for each of them. Cheapest when {@code sorted} is the shorter side.
+     *
+     * @param sorted ids in increasing order
+     * @return the common ids in increasing order
+     */
+    int[] intersect(int[] sorted) {
+        int[] out = new int[sorted.length];
+        int n = 0;
+        int lo = 0;
+        for (int id : sorted) {
+            int at = Arrays.binarySearch(ids, lo, length, id);
+            if (at >= 0) {
+                out[n++] = id;
+                lo = at + 1;
+            } else {
+                lo = -at - 1;
+            }
+            if (lo >= length) break;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Merges this list with {@code sorted}.
+     *
+     * @param sorted ids in increasing order
+     * @return the ids in either list, in increasing order and without repeats
+     */
+    int[] union(int[] sorted) {
+        int[] out = new int[sorted.length + length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < sorted.length || j < length) {
+            if (j >= length || (i < sorted.length && sorted[i] < ids[j])) {
+                out[n++] = sorted[i++];
+            } else if (i >= sorted.length || ids[j] < sorted[i]) {
+                out[n++] = ids[j++];
+            } else {
+                out[n++] = sorted[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -0,0 +1,88 @@
+package resonant.index;
+
+import java.util.Arrays;
+
+/**
+ * Assigns stable ids to the positions of a task list, for use in index postings.
+ * <p>
+ * Positions shift whenever a task is deleted, so indexes refer to tasks by id instead.
+ * Ids are handed out in increasing order as tasks are appended, and deleting a task keeps
+ * the order of the rest, so the id array is always sorted and an id is mapped back to its
+ * current position with a binary search.
+ * </p>
+ */
+public class TaskIds {
+
+    private int[] ids;
+    private int size;
+    private int nextId;
+
+    /**
+     * Creates ids {@code 0..count-1} for a list that already holds {@code count} tasks.
+     *
+     * @param count the current number of tasks
+     */
+    public TaskIds(int count) {
+        this.ids = new int[Math.max(16, count)];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+        }
+        this.size = count;
+        this.nextId = count;
+    }
+
+    /**
+     * Assigns an id to a task appended at the end of the list.
+     *
+     * @return the new id
+     */
+    public int append() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = nextId;
+        return nextId++;
+    }
+
+    /**
+     * Forgets the id of the task at a 0-based position.
+     *
+     * @param position the position of the removed task
+     * @return the id it had
+     */
+    public int remove(int position) {
+        int id = ids[position];
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return id;
+    }
+
+    /**
+     * Returns the id of the task at a 0-based position.
+     *
+     * @param position the position
+     * @return its id
+     */
+    public int idAt(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Returns the current 0-based position of an id.
+     *
+     * @param id the id
+     * @return its position, or a negative number if the task has been removed
+     */
+    public int positionOf(int id) {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    /**
+     * Returns the number of live ids.
+     *
+     * @return the number of tasks
+     */
+    public int size() {
+        return size;
+    }
+}
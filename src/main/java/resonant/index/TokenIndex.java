@@ -0,0 +1,103 @@
+package resonant.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from the words of task descriptions to the ids of the tasks containing them.
+ * <p>
+ * A word is a maximal run of letters and digits, compared in lower case. Each word maps to
+ * a postings list of task ids in increasing order, which is also list order since ids are
+ * assigned as tasks are appended (see {@link TaskIds}). Queries for several words intersect
+ * or merge postings instead of looking at every description.
+ * </p>
+ *
+ * <p>
+ * Removed tasks are not taken out of the postings; callers drop ids that no longer map to a
+ * position and rebuild the index once removed ids outnumber live ones.
+ * </p>
+ */
+public class TokenIndex {
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * Indexes the words of a task description. Ids must be added in increasing order.
+     *
+     * @param id          the task id
+     * @param description the task description
+     */
+    public void add(int id, String description) {
+        for (String w : words(description)) {
+            postings.computeIfAbsent(w, k -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Returns the ids of tasks whose descriptions contain every one of the given words.
+     *
+     * @param words the lower-case query words, as produced by {@link #words}
+     * @return matching ids in increasing order
+     */
+    public int[] all(List<String> words) {
+        List<Postings> lists = new ArrayList<>();
+        for (String w : words) {
+            Postings p = postings.get(w);
+            if (p == null) {
+                return Postings.NONE;
+            }
+            lists.add(p);
+        }
+        if (lists.isEmpty()) {
+            return Postings.NONE;
+        }
+        lists.sort(Comparator.comparingInt(Postings::length));
+        int[] result = lists.get(0).toArray();
+        for (int k = 1; k < lists.size() && result.length > 0; k++) {
+            result = lists.get(k).intersect(result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids of tasks whose descriptions contain at least one of the given words.
+     *
+     * @param words the lower-case query words, as produced by {@link #words}
+     * @return matching ids in increasing order
+     */
+    public int[] any(List<String> words) {
+        int[] result = Postings.NONE;
+        for (String w : words) {
+            Postings p = postings.get(w);
+            if (p != null) {
+                result = p.union(result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits text into lower-case words, i.e. maximal runs of letters and digits.
+     *
+     * @param text the text to split
+     * @return the words in order of appearance, possibly with repeats
+     */
+    public static List<String> words(String text) {
+        String lower = text.toLowerCase();
+        List<String> out = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean inWord = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                out.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return out;
+    }
+}
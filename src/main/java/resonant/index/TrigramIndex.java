@@ -0,0 +1,77 @@
+package resonant.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index from every three-character substring of the lower-cased task descriptions to the
+ * ids of the tasks containing it.
+ * <p>
+ * A keyword of at least {@value #GRAM} characters can only occur in a description that
+ * contains all of the keyword's trigrams, so intersecting their postings narrows a
+ * substring search down to a few candidates. The candidates still have to be checked
+ * with {@link String#contains}, since the trigrams may occur in a different order.
+ * </p>
+ *
+ * <p>
+ * Like {@link TokenIndex}, ids must be added in increasing order and removed tasks are
+ * left in the postings for the caller to filter out.
+ * </p>
+ */
+public class TrigramIndex {
+
+    /** Length of the indexed substrings; shorter keywords cannot use the index. */
+    public static final int GRAM = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Indexes the trigrams of a task description.
+     *
+     * @param id          the task id
+     * @param description the task description
+     */
+    public void add(int id, String description) {
+        String lower = description.toLowerCase();
+        for (int i = 0; i + GRAM <= lower.length(); i++) {
+            postings.computeIfAbsent(key(lower, i), k -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Returns the ids of tasks whose lower-cased descriptions contain every trigram of the
+     * keyword. This is a superset of the tasks that contain the keyword itself.
+     *
+     * @param lowerKeyword the keyword in lower case, at least {@value #GRAM} characters long
+     * @return candidate ids in increasing order
+     */
+    public int[] candidates(String lowerKeyword) {
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= lowerKeyword.length(); i++) {
+            Postings p = postings.get(key(lowerKeyword, i));
+            if (p == null) {
+                return Postings.NONE;
+            }
+            lists.add(p);
+        }
+        if (lists.isEmpty()) {
+            throw new IllegalArgumentException("Keyword is shorter than " + GRAM + " characters.");
+        }
+        lists.sort(Comparator.comparingInt(Postings::length));
+        int[] result = lists.get(0).toArray();
+        for (int k = 1; k < lists.size() && result.length > 0; k++) {
+            if (lists.get(k) != lists.get(k - 1)) {
+                result = lists.get(k).intersect(result);
+            }
+        }
+        return result;
+    }
+
+    /** Packs the three characters starting at {@code i} into one key. */
+    private static long key(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+}
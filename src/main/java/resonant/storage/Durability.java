@@ -0,0 +1,31 @@
+package resonant.storage;
+
+/**
+ * How eagerly {@link GroupCommitWriter} forces written data to the storage device.
+ */
+public enum Durability {
+    /** Every command waits until its change has been written and fsynced. */
+    SYNC,
+
+    /** Commands return immediately; each merged batch of writes is fsynced once. */
+    BATCH,
+
+    /** Commands return immediately; written data is fsynced on a fixed timer. */
+    PERIODIC;
+
+    /**
+     * Parses a durability mode from its case-insensitive name.
+     *
+     * @param name the mode name, e.g. {@code "sync"}
+     * @return the matching mode
+     * @throws IllegalArgumentException if no mode has that name
+     */
+    public static Durability parse(String name) {
+        for (Durability d : values()) {
+            if (d.name().equalsIgnoreCase(name)) {
+                return d;
+            }
+        }
+        throw new IllegalArgumentException("Unknown durability mode '" + name + "'. Use sync, batch or periodic.");
+    }
+}
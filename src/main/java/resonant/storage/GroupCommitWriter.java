@@ -0,0 +1,321 @@
+package resonant.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background writer that performs journal appends and snapshot writes off the caller's thread.
+ * <p>
+ * Requests are queued in submission order. Whenever the writer thread wakes up it takes
+ * everything that has been queued so far and commits it as a single group: snapshots and
+ * actions that are superseded by a later snapshot are dropped, the journal records are merged
+ * into one write per snapshot boundary, and the batch is fsynced according to the configured
+ * {@link Durability}.
+ * Bursts of commands therefore cost one write and at most one fsync, instead of one each.
+ * </p>
+ *
+ * <p>
+ * A failure on the writer thread, whether an I/O error or a bug in a queued action, is
+ * remembered and rethrown to the next caller of {@link #append}, {@link #snapshot},
+ * {@link #flush} or {@link #close}; the thread itself keeps running so those calls return.
+ * </p>
+ */
+public class GroupCommitWriter implements AutoCloseable {
+
+    /** Interval between fsyncs in {@link Durability#PERIODIC} mode. */
+    private static final long PERIODIC_SYNC_MILLIS = 1000;
+
+    /** A write action that may fail with an {@link IOException}. */
+    @FunctionalInterface
+    public interface IoAction {
+        void run() throws IOException;
+    }
+
+    private enum Kind { RECORD, SNAPSHOT, ACTION, SYNC }
+
+    /** A queued unit of work. */
+    private static final class Request {
+        final Kind kind;
+        final byte[] record;
+        final IoAction action;
+
+        Request(Kind kind, byte[] record, IoAction action) {
+            this.kind = kind;
+            this.record = record;
+            this.action = action;
+        }
+    }
+
+    private final Path journal;
+    private final Path previousJournal;
+    private final Durability durability;
+    private final Thread thread;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Request> queue = new ArrayDeque<>();
+    private long submitted;
+    private long completed;
+    private boolean closed;
+    private IOException failure;
+
+    /** Journal channel, opened lazily and only touched by the writer thread. */
+    private FileChannel channel;
+    private boolean unsynced;
+    private long lastSync = System.currentTimeMillis();
+
+    /**
+     * Creates a writer for the given journal file and starts its background thread.
+     *
+     * @param journal         the journal file that records are appended to
+     * @param previousJournal where the journal is moved once a snapshot has been written
+     * @param durability      when written data is forced to disk
+     */
+    public GroupCommitWriter(Path journal, Path previousJournal, Durability durability) {
+        this.journal = journal;
+        this.previousJournal = previousJournal;
+        this.durability = durability;
+        this.thread = new Thread(this::run, "resonant-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues a record to be appended to the journal.
+     *
+     * @param record the encoded record, including any terminator
+     * @throws IOException if a previous write failed, or this write fails in {@link Durability#SYNC} mode
+     */
+    public void append(byte[] record) throws IOException {
+        submit(new Request(Kind.RECORD, record, null), durability == Durability.SYNC);
+    }
+
+    /**
+     * Queues a snapshot write. Once it has run, the journal is moved aside as the previous
+     * journal and a new one is started, since the snapshot already contains every record
+     * queued before it. The previous journal is kept so that an older snapshot can still be
+     * brought up to date if the new one turns out to be damaged.
+     *
+     * @param write the action that writes the snapshot, including any fsync it needs
+     * @throws IOException if a previous write failed, or this write fails in {@link Durability#SYNC} mode
+     */
+    public void snapshot(IoAction write) throws IOException {
+        submit(new Request(Kind.SNAPSHOT, null, write), durability == Durability.SYNC);
+    }
+
+    /**
+     * Queues an arbitrary write to run on the writer thread, in order with other requests.
+     * It is skipped if a later snapshot is queued in the same group.
+     *
+     * @param action the write to perform
+     * @throws IOException if a previous write failed, or this write fails in {@link Durability#SYNC} mode
+     */
+    public void execute(IoAction action) throws IOException {
+        submit(new Request(Kind.ACTION, null, action), durability == Durability.SYNC);
+    }
+
+    /**
+     * Blocks until everything queued so far has been written and fsynced.
+     *
+     * @throws IOException if any queued write failed
+     */
+    public void flush() throws IOException {
+        submit(new Request(Kind.SYNC, null, null), true);
+    }
+
+    /**
+     * Flushes all queued writes and stops the writer thread.
+     *
+     * @throws IOException if any queued write failed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            synchronized (lock) {
+                closed = true;
+                lock.notifyAll();
+            }
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void submit(Request r, boolean await) throws IOException {
+        long seq;
+        synchronized (lock) {
+            throwIfFailed();
+            if (closed) {
+                throw new IOException("Storage writer is closed.");
+            }
+            queue.add(r);
+            seq = ++submitted;
+            lock.notifyAll();
+            if (!await) {
+                return;
+            }
+            while (completed < seq) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for storage writes.", e);
+                }
+            }
+            throwIfFailed();
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("An earlier write to storage failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<Request> batch;
+            long upTo;
+            synchronized (lock) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        if (durability == Durability.PERIODIC && unsynced) {
+                            long wait = lastSync + PERIODIC_SYNC_MILLIS - System.currentTimeMillis();
+                            if (wait <= 0) break;
+                            lock.wait(wait);
+                        } else {
+                            lock.wait();
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (queue.isEmpty() && closed) {
+                    break;
+                }
+                batch = new ArrayList<>(queue);
+                queue.clear();
+                upTo = submitted;
+            }
+
+            IOException error = null;
+            try {
+                commit(batch);
+            } catch (IOException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                // A bug in a queued action must not take the thread down with it, or everyone
+                // waiting on this batch and every later flush would block forever.
+                error = new IOException(e.toString(), e);
+                closeChannel();
+            }
+
+            synchronized (lock) {
+                if (error != null && failure == null) {
+                    failure = error;
+                }
+                completed = upTo;
+                lock.notifyAll();
+            }
+        }
+        closeChannel();
+    }
+
+    /** Writes one group of requests, then fsyncs it as the durability mode requires. */
+    private void commit(List<Request> batch) throws IOException {
+        int lastSnapshot = -1;
+        boolean syncRequested = false;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).kind == Kind.SNAPSHOT) lastSnapshot = i;
+            if (batch.get(i).kind == Kind.SYNC) syncRequested = true;
+        }
+
+        if (lastSnapshot >= 0) {
+            // Everything queued before the newest snapshot is already contained in it, but its
+            // records still go to the journal that becomes the previous one, so that the
+            // previous snapshot plus that journal stays a complete fallback.
+            writeRecords(batch, 0, lastSnapshot);
+            if (unsynced && durability != Durability.PERIODIC) {
+                channel.force(false);
+            }
+            batch.get(lastSnapshot).action.run();
+            closeChannel();
+            if (Files.exists(journal)) {
+                Files.move(journal, previousJournal, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(previousJournal);
+            }
+        }
+
+        int from = lastSnapshot + 1;
+        for (int i = from; i < batch.size(); i++) {
+            if (batch.get(i).kind == Kind.ACTION) {
+                writeRecords(batch, from, i);
+                batch.get(i).action.run();
+                from = i + 1;
+            }
+        }
+        writeRecords(batch, from, batch.size());
+
+        boolean timerDue = System.currentTimeMillis() - lastSync >= PERIODIC_SYNC_MILLIS;
+        if (unsynced && (durability != Durability.PERIODIC || syncRequested || timerDue)) {
+            channel.force(false);
+            unsynced = false;
+            lastSync = System.currentTimeMillis();
+        }
+    }
+
+    /** Appends the journal records among {@code batch[from..to)} to the journal in one write. */
+    private void writeRecords(List<Request> batch, int from, int to) throws IOException {
+        int bytes = 0;
+        for (int i = from; i < to; i++) {
+            byte[] r = batch.get(i).record;
+            if (r != null) bytes += r.length;
+        }
+        if (bytes == 0) {
+            return;
+        }
+        ByteBuffer merged = ByteBuffer.allocate(bytes);
+        for (int i = from; i < to; i++) {
+            byte[] r = batch.get(i).record;
+            if (r != null) merged.put(r);
+        }
+        merged.flip();
+        FileChannel ch = channel();
+        while (merged.hasRemaining()) {
+            ch.write(merged);
+        }
+        unsynced = true;
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(journal,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing left to write through this channel.
+            }
+            channel = null;
+            unsynced = false;
+        }
+    }
+}
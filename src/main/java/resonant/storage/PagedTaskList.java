@@ -0,0 +1,283 @@
+package resonant.storage;
+
+import resonant.tasks.BulkRemovable;
+import resonant.tasks.Snapshottable;
+import resonant.tasks.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A task list that reads tasks from a memory-mapped {@link BinaryFormat} snapshot on demand.
+ * <p>
+ * Opening the list only scans record boundaries (and checks record checksums) to build an
+ * offset index; no task is decoded until {@link #get} touches it. Decoded tasks are cached a page of
+ * {@value #PAGE_SIZE} records at a time in a bounded LRU, so resident memory depends on the
+ * working set rather than on the size of the snapshot.
+ * </p>
+ *
+ * <p>
+ * Each position refers either to a record in the file or, once it has been added or
+ * replaced through {@link #set}, to an in-memory overlay task. Callers that change a task
+ * must therefore write it back with {@code set}; a change made only to a cached instance is
+ * lost when its page is evicted. Once a snapshot of the list has been written to a new file,
+ * {@link #rebase} moves the list onto that file and drops the overlay tasks it now holds.
+ * </p>
+ */
+public class PagedTaskList extends AbstractList<Task> implements RandomAccess, Snapshottable, BulkRemovable {
+
+    static final int PAGE_SIZE = 1024;
+    private static final int PAGE_SHIFT = 10;
+    private static final int MAX_CACHED_PAGES = 256;
+
+    /** The mapped snapshot; read with absolute gets only, so it is never modified. */
+    private ByteBuffer file;
+    private boolean checksummed;
+
+    /** Byte offset of every record in {@link #file}, shared between snapshots. */
+    private int[] offsets;
+
+    /** Per position: a record number if {@code >= 0}, otherwise {@code -(overlay index + 1)}. */
+    private int[] refs;
+    private int size;
+    private final ArrayList<Task> overlay;
+
+    /**
+     * Overlay entries below this index are also held by a snapshot, which may have written
+     * them out, so {@link #set} replaces them with new entries instead of overwriting them.
+     */
+    private int shared;
+
+    private final Map<Integer, Task[]> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Task[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    private PagedTaskList(ByteBuffer file, boolean checksummed, int[] offsets, int[] refs, int size,
+            ArrayList<Task> overlay) {
+        this.file = file;
+        this.checksummed = checksummed;
+        this.offsets = offsets;
+        this.refs = refs;
+        this.size = size;
+        this.overlay = overlay;
+    }
+
+    /**
+     * Maps a binary snapshot and indexes its records without decoding them.
+     *
+     * @param snapshot the {@link BinaryFormat} file to open
+     * @return a list positioned over every complete record in the file
+     * @throws IOException if the file cannot be mapped or is not a binary snapshot
+     */
+    public static PagedTaskList open(Path snapshot) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large: " + snapshot);
+            }
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        BinaryFormat.Decoder d = BinaryFormat.open(buf, snapshot);
+
+        int[] offsets = new int[1024];
+        int n = 0;
+        while (d.hasRemaining()) {
+            int at = d.position();
+            if (!d.skip()) break;
+            if (n == offsets.length) offsets = Arrays.copyOf(offsets, n * 2);
+            offsets[n++] = at;
+        }
+        if (d.checksummed && n != d.expected) {
+            throw new IOException("Corrupt snapshot (record " + (n + 1) + " of " + d.expected
+                    + " is damaged): " + snapshot);
+        }
+        offsets = Arrays.copyOf(offsets, n);
+
+        int[] refs = new int[Math.max(16, n)];
+        for (int i = 0; i < n; i++) {
+            refs[i] = i;
+        }
+        return new PagedTaskList(buf, d.checksummed, offsets, refs, n, new ArrayList<>());
+    }
+
+    /**
+     * Returns a frozen copy of this list that shares the mapped file and offset index.
+     * <p>
+     * Only the per-position references and overlay are copied, so this is far cheaper than
+     * materializing every task. The copy has its own page cache.
+     * </p>
+     *
+     * @return an independent list with the current contents
+     */
+    @Override
+    public PagedTaskList snapshot() {
+        shared = overlay.size();
+        return new PagedTaskList(file, checksummed, offsets, Arrays.copyOf(refs, Math.max(16, size)), size,
+                new ArrayList<>(overlay));
+    }
+
+    /**
+     * Moves this list onto a snapshot file written from one of its earlier snapshots.
+     * <p>
+     * Every position that still holds what {@code copy} held is pointed at the matching
+     * record of {@code written}, so the overlay keeps only the tasks added or replaced since
+     * {@code copy} was taken, and the previous file is no longer referenced. Does nothing if
+     * this list has already moved on from the file {@code copy} was read from.
+     * </p>
+     *
+     * @param copy    a {@link #snapshot()} of this list
+     * @param written the file {@code copy} was written to, opened with {@link #open}
+     */
+    public void rebase(PagedTaskList copy, PagedTaskList written) {
+        if (copy.offsets != offsets || written.size != copy.size) {
+            return;
+        }
+        // Where each record and overlay task of the copy ended up in the written file.
+        int[] fromRecord = new int[offsets.length];
+        int[] fromOverlay = new int[copy.overlay.size()];
+        Arrays.fill(fromRecord, -1);
+        Arrays.fill(fromOverlay, -1);
+        for (int p = 0; p < copy.size; p++) {
+            int ref = copy.refs[p];
+            if (ref >= 0) {
+                fromRecord[ref] = p;
+            } else {
+                fromOverlay[-ref - 1] = p;
+            }
+        }
+        ArrayList<Task> kept = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int ref = refs[i];
+            int moved = -1;
+            if (ref >= 0) {
+                moved = fromRecord[ref];
+            } else if (-ref - 1 < fromOverlay.length) {
+                moved = fromOverlay[-ref - 1];
+            }
+            if (moved >= 0) {
+                refs[i] = moved;
+            } else {
+                kept.add(get(i));
+                refs[i] = -kept.size();
+            }
+        }
+        file = written.file;
+        checksummed = written.checksummed;
+        offsets = written.offsets;
+        overlay.clear();
+        overlay.addAll(kept);
+        shared = 0;
+        pages.clear();
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size);
+        int ref = refs[index];
+        if (ref < 0) {
+            return overlay.get(-ref - 1);
+        }
+        return page(ref >>> PAGE_SHIFT)[ref & (PAGE_SIZE - 1)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task set(int index, Task t) {
+        Task old = get(index);
+        int ref = refs[index];
+        if (ref < 0 && -ref - 1 >= shared) {
+            overlay.set(-ref - 1, t);
+        } else {
+            refs[index] = toOverlay(t);
+        }
+        return old;
+    }
+
+    @Override
+    public void add(int index, Task t) {
+        checkIndex(index, size + 1);
+        if (size == refs.length) {
+            refs = Arrays.copyOf(refs, size * 2);
+        }
+        System.arraycopy(refs, index, refs, index + 1, size - index);
+        refs[index] = toOverlay(t);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task old = get(index);
+        System.arraycopy(refs, index + 1, refs, index, size - index - 1);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    /**
+     * Removes the tasks at the given positions, shifting the position references once.
+     *
+     * @param positions distinct 0-based positions within the list, in increasing order
+     */
+    @Override
+    public void removePositions(int[] positions) {
+        if (positions.length == 0) {
+            return;
+        }
+        checkIndex(positions[0], size);
+        checkIndex(positions[positions.length - 1], size);
+        int write = positions[0];
+        int k = 0;
+        for (int read = positions[0]; read < size; read++) {
+            if (k < positions.length && positions[k] == read) {
+                k++;
+            } else {
+                refs[write++] = refs[read];
+            }
+        }
+        size = write;
+        modCount++;
+    }
+
+    private int toOverlay(Task t) {
+        overlay.add(t);
+        return -overlay.size();
+    }
+
+    private Task[] page(int p) {
+        Task[] page = pages.get(p);
+        if (page == null) {
+            int first = p << PAGE_SHIFT;
+            int count = Math.min(PAGE_SIZE, offsets.length - first);
+            page = new Task[count];
+            BinaryFormat.Decoder d = new BinaryFormat.Decoder(file, offsets[first], checksummed);
+            for (int i = 0; i < count; i++) {
+                page[i] = d.record();
+            }
+            pages.put(p, page);
+        }
+        return page;
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + bound);
+        }
+    }
+}
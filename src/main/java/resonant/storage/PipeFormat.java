@@ -0,0 +1,166 @@
+package resonant.storage;
+
+import resonant.tasks.Deadline;
+import resonant.tasks.Event;
+import resonant.tasks.StringPool;
+import resonant.tasks.Task;
+import resonant.tasks.Todo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The legacy human-readable snapshot format, one pipe-delimited task per line.
+ * <p>
+ * Example file contents:
+ * <pre>
+ * # checkpoint 2500
+ * T | 1 | read book
+ * D | 0 | submit report | 2025-10-10
+ * E | 1 | attend meeting | 10am | 12pm
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * The optional first line records the snapshot's journal checkpoint. It has fewer than three
+ * fields, so readers that predate it skip it like any other malformed line.
+ * </p>
+ */
+public class PipeFormat implements SnapshotFormat {
+
+    private static final String CHECKPOINT_PREFIX = "# checkpoint ";
+
+    @Override
+    public List<Task> read(Path file) throws IOException {
+        return PipeFormatReader.read(file);
+    }
+
+    @Override
+    public void write(Path file, List<Task> tasks) throws IOException {
+        write(file, tasks, NO_CHECKPOINT);
+    }
+
+    @Override
+    public void write(Path file, List<Task> tasks, long checkpoint) throws IOException {
+        List<String> lines = new ArrayList<>(tasks.size() + 1);
+        if (checkpoint != NO_CHECKPOINT) {
+            lines.add(CHECKPOINT_PREFIX + checkpoint);
+        }
+        for (Task t : tasks) {
+            lines.add(encode(t));
+        }
+        Files.write(
+                file,
+                lines,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        );
+    }
+
+    @Override
+    public long checkpoint(Path file) throws IOException {
+        String first;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            first = in.readLine();
+        }
+        if (first == null || !first.startsWith(CHECKPOINT_PREFIX)) {
+            return NO_CHECKPOINT;
+        }
+        try {
+            return Long.parseLong(first.substring(CHECKPOINT_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Damaged checkpoint line in " + file + ": " + first, e);
+        }
+    }
+
+    /**
+     * Serializes a task into a single pipe-delimited line.
+     *
+     * @param t the task to serialize
+     * @return the encoded line, without a trailing newline
+     */
+    public static String encode(Task t) {
+        String done = t.isDone() ? "1" : "0";
+        if (t instanceof Deadline) {
+            Deadline d = (Deadline) t;
+            return String.join(" | ", "D", done, d.description(), d.by());
+        } else if (t instanceof Event) {
+            Event e = (Event) t;
+            return String.join(" | ", "E", done, e.description(), e.from(), e.to());
+        }
+        return String.join(" | ", "T", done, t.description());
+    }
+
+    /**
+     * Parses a single pipe-delimited line into a task.
+     *
+     * @param raw the line to parse
+     * @return the decoded task, or {@code null} if the line is blank or malformed
+     */
+    public static Task decode(String raw) {
+        String line = raw.trim();
+        if (line.isEmpty()) return null;
+
+        // Expected formats:
+        // T | 1 | desc
+        // D | 0 | desc | by
+        // E | 1 | desc | from | to
+        String[] parts = line.split("\\|");
+        if (parts.length < 3) return null;
+
+        try {
+            String type = parts[0].trim();
+            boolean done = "1".equals(parts[1].trim());
+            Task t;
+            switch (type) {
+                case "T" -> {
+                    String desc = joinRest(parts, 2);
+                    if (desc.isEmpty()) return null;
+                    t = new Todo(StringPool.SHARED.intern(desc));
+                }
+                case "D" -> {
+                    if (parts.length < 4) return null;
+                    t = new Deadline(StringPool.SHARED.intern(parts[2].trim()), StringPool.SHARED.intern(joinRest(parts, 3)));
+                }
+                case "E" -> {
+                    if (parts.length < 5) return null;
+                    t = new Event(StringPool.SHARED.intern(parts[2].trim()), StringPool.SHARED.intern(parts[3].trim()), StringPool.SHARED.intern(joinRest(parts, 4)));
+                }
+                default -> {
+                    return null;
+                }
+            }
+            if (done) t.mark();
+            return t;
+        } catch (Exception ignored) {
+            // Skip malformed lines gracefully
+            return null;
+        }
+    }
+
+    /**
+     * Joins all array elements starting from the given index using {@code " | "} as a separator.
+     * <p>
+     * This helper is used when reconstructing task fields (e.g. descriptions that may contain delimiters).
+     * </p>
+     *
+     * @param parts the split string array
+     * @param start the starting index for concatenation
+     * @return a trimmed string consisting of all joined parts
+     */
+    private static String joinRest(String[] parts, int start) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = start; i < parts.length; i++) {
+            if (i > start) sb.append(" | ");
+            sb.append(parts[i].trim());
+        }
+        return sb.toString();
+    }
+}
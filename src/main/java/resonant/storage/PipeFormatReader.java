@@ -0,0 +1,208 @@
+package resonant.storage;
+
+import resonant.tasks.Deadline;
+import resonant.tasks.Event;
+import resonant.tasks.StringPool;
+import resonant.tasks.Task;
+import resonant.tasks.Todo;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming loader for the pipe-delimited task format.
+ * <p>
+ * The data file is memory-mapped in windows and scanned once, byte by byte, for {@code '|'}
+ * and line terminators. Field boundaries are kept as offsets into the mapping, and the only
+ * objects created per line are the field {@link String}s and the resulting {@link Task};
+ * there is no per-line {@code String}, regex split, or intermediate array.
+ * </p>
+ *
+ * <p>
+ * Malformed lines are skipped exactly as before: a line must have at least three
+ * non-trailing-empty fields, a known type letter, and enough fields for its type.
+ * Trailing fields are re-joined with {@code " | "} so that descriptions containing
+ * the delimiter survive a round trip.
+ * </p>
+ */
+public final class PipeFormatReader {
+
+    /** Size of each mapped window; lines never straddle two windows. */
+    private static final long WINDOW_BYTES = 64L << 20;
+
+    private MappedByteBuffer buf;
+
+    /** Offsets of the {@code '|'} characters in the current line. */
+    private int[] bars = new int[8];
+
+    /** Number of valid entries in {@link #bars}. */
+    private int nBars;
+
+    /** Reusable buffer that field bytes are copied into before decoding. */
+    private byte[] scratch = new byte[256];
+
+    private PipeFormatReader() {
+    }
+
+    /**
+     * Reads every well-formed task from the given pipe-delimited file.
+     *
+     * @param file the file to read; it must exist
+     * @return the tasks in file order
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static List<Task> read(Path file) throws IOException {
+        List<Task> out = new ArrayList<>();
+        new PipeFormatReader().readInto(file, out);
+        return out;
+    }
+
+    private void readInto(Path file, List<Task> out) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long base = 0;
+            long window = WINDOW_BYTES;
+            while (base < size) {
+                int len = (int) Math.min(window, size - base);
+                buf = ch.map(FileChannel.MapMode.READ_ONLY, base, len);
+                boolean last = base + len == size;
+                int lineStart = 0;
+                nBars = 0;
+                for (int i = 0; i < len; i++) {
+                    byte b = buf.get(i);
+                    if (b == '|') {
+                        if (nBars == bars.length) bars = Arrays.copyOf(bars, nBars * 2);
+                        bars[nBars++] = i;
+                    } else if (b == '\n' || b == '\r') {
+                        parseLine(lineStart, i, out);
+                        lineStart = i + 1;
+                        nBars = 0;
+                    }
+                }
+                if (last) {
+                    parseLine(lineStart, len, out);
+                    break;
+                }
+                if (lineStart == 0) {
+                    // A single line is longer than the window; map a bigger one.
+                    window *= 2;
+                } else {
+                    base += lineStart;
+                    window = WINDOW_BYTES;
+                }
+            }
+        } finally {
+            buf = null;
+        }
+    }
+
+    private void parseLine(int s, int e, List<Task> out) {
+        // Equivalent to String.trim(): bytes of multi-byte UTF-8 sequences are never <= ' '.
+        // Bars are never blank, so trimming cannot move s or e past one of them.
+        while (s < e && isBlank(buf.get(s))) s++;
+        while (e > s && isBlank(buf.get(e - 1))) e--;
+        if (s == e) return;
+
+        // Like String.split, drop trailing fields that are completely empty.
+        int fields = nBars + 1;
+        while (fields > 0 && fieldStart(s, fields - 1) == fieldEnd(e, fields - 1)) {
+            fields--;
+        }
+        if (fields < 3) return;
+
+        int typeStart = trimStart(fieldStart(s, 0), fieldEnd(e, 0));
+        int typeEnd = trimEnd(typeStart, fieldEnd(e, 0));
+        if (typeEnd - typeStart != 1) return;
+        byte type = buf.get(typeStart);
+
+        int doneStart = trimStart(fieldStart(s, 1), fieldEnd(e, 1));
+        int doneEnd = trimEnd(doneStart, fieldEnd(e, 1));
+        boolean done = doneEnd - doneStart == 1 && buf.get(doneStart) == '1';
+
+        Task t;
+        switch (type) {
+            case 'T' -> {
+                String desc = joinRest(s, e, 2, fields);
+                if (desc.isEmpty()) return;
+                t = new Todo(StringPool.SHARED.intern(desc));
+            }
+            case 'D' -> {
+                if (fields < 4) return;
+                t = new Deadline(StringPool.SHARED.intern(field(s, e, 2)), StringPool.SHARED.intern(joinRest(s, e, 3, fields)));
+            }
+            case 'E' -> {
+                if (fields < 5) return;
+                t = new Event(StringPool.SHARED.intern(field(s, e, 2)), StringPool.SHARED.intern(field(s, e, 3)),
+                        StringPool.SHARED.intern(joinRest(s, e, 4, fields)));
+            }
+            default -> {
+                return;
+            }
+        }
+        if (done) t.mark();
+        out.add(t);
+    }
+
+    private int fieldStart(int lineStart, int k) {
+        return k == 0 ? lineStart : bars[k - 1] + 1;
+    }
+
+    private int fieldEnd(int lineEnd, int k) {
+        return k == nBars ? lineEnd : bars[k];
+    }
+
+    private int trimStart(int s, int e) {
+        while (s < e && isBlank(buf.get(s))) s++;
+        return s;
+    }
+
+    private int trimEnd(int s, int e) {
+        while (e > s && isBlank(buf.get(e - 1))) e--;
+        return e;
+    }
+
+    /** Returns field {@code k} of the current line, trimmed. */
+    private String field(int lineStart, int lineEnd, int k) {
+        int s = trimStart(fieldStart(lineStart, k), fieldEnd(lineEnd, k));
+        int e = trimEnd(s, fieldEnd(lineEnd, k));
+        ensureScratch(e - s);
+        buf.get(s, scratch, 0, e - s);
+        return new String(scratch, 0, e - s, StandardCharsets.UTF_8);
+    }
+
+    /** Returns trimmed fields {@code from..fields-1} of the current line joined by {@code " | "}. */
+    private String joinRest(int lineStart, int lineEnd, int from, int fields) {
+        int len = 0;
+        for (int k = from; k < fields; k++) {
+            int s = trimStart(fieldStart(lineStart, k), fieldEnd(lineEnd, k));
+            int e = trimEnd(s, fieldEnd(lineEnd, k));
+            if (k > from) {
+                ensureScratch(len + 3);
+                scratch[len++] = ' ';
+                scratch[len++] = '|';
+                scratch[len++] = ' ';
+            }
+            ensureScratch(len + e - s);
+            buf.get(s, scratch, len, e - s);
+            len += e - s;
+        }
+        return new String(scratch, 0, len, StandardCharsets.UTF_8);
+    }
+
+    private void ensureScratch(int n) {
+        if (n > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(n, scratch.length * 2));
+        }
+    }
+
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
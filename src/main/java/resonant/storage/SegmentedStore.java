@@ -0,0 +1,320 @@
+package resonant.storage;
+
+import resonant.tasks.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Task store that splits the list across fixed-capacity segment files.
+ * <p>
+ * The store is a directory holding a {@code MANIFEST} that lists segment ids in task order,
+ * and one {@link BinaryFormat} file per segment. Adding, marking or deleting a task rewrites
+ * only the segment that holds it, so the cost of a mutation depends on the segment capacity
+ * rather than on the number of tasks. The manifest is only rewritten when segments are
+ * created, merged or dropped.
+ * </p>
+ *
+ * <p>
+ * Deletes leave segments partly empty. Whenever a segment falls below a quarter of its
+ * capacity it is merged into a neighbour, keeping the segment count proportional to the
+ * number of tasks. On load, segments are decoded in parallel and joined in manifest order.
+ * </p>
+ *
+ * <p>
+ * The mutating methods are called from the storage writer thread only; the store keeps
+ * its own record of which tasks live in which segment so that it never reads the live
+ * task list.
+ * </p>
+ */
+public class SegmentedStore implements SnapshotFormat {
+
+    /** Maximum number of tasks per segment. */
+    static final int SEGMENT_CAPACITY = 4096;
+
+    private static final String MANIFEST = "MANIFEST";
+    private static final String MANIFEST_HEADER = "RSEG 1";
+
+    private final BinaryFormat segmentFormat = new BinaryFormat();
+    private final boolean durable;
+
+    private final Path dir;
+    private boolean opened;
+    private final List<Segment> segments = new ArrayList<>();
+    private int nextId = 1;
+
+    /** One segment file and the tasks currently stored in it. */
+    private static final class Segment {
+        final int id;
+        final List<Task> tasks;
+
+        Segment(int id, List<Task> tasks) {
+            this.id = id;
+            this.tasks = tasks;
+        }
+    }
+
+    /**
+     * Creates a segmented store. The directory and its manifest are created on first write.
+     *
+     * @param dir     the directory holding the manifest and segment files
+     * @param durable whether every written file is fsynced before it replaces the old one
+     */
+    public SegmentedStore(Path dir, boolean durable) {
+        this.dir = dir;
+        this.durable = durable;
+    }
+
+    @Override
+    public List<Task> read(Path dir) throws IOException {
+        requireOwn(dir);
+        segments.clear();
+        if (Files.notExists(dir.resolve(MANIFEST))) {
+            return new ArrayList<>();
+        }
+        List<String> lines = Files.readAllLines(dir.resolve(MANIFEST), StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).equals(MANIFEST_HEADER)) {
+            throw new IOException("Not a Resonant segment manifest: " + dir.resolve(MANIFEST));
+        }
+        int[] ids = lines.stream().skip(1).filter(l -> !l.isBlank()).mapToInt(l -> Integer.parseInt(l.trim())).toArray();
+
+        List<List<Task>> parts;
+        try {
+            parts = IntStream.range(0, ids.length).parallel()
+                    .mapToObj(i -> readSegment(ids[i]))
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        List<Task> all = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            segments.add(new Segment(ids[i], parts.get(i)));
+            all.addAll(parts.get(i));
+            nextId = Math.max(nextId, ids[i] + 1);
+        }
+        return all;
+    }
+
+    @Override
+    public void write(Path dir, List<Task> tasks) throws IOException {
+        requireOwn(dir);
+        open();
+        List<Segment> old = new ArrayList<>(segments);
+        segments.clear();
+        for (int from = 0; from < tasks.size(); from += SEGMENT_CAPACITY) {
+            List<Task> chunk = new ArrayList<>(tasks.subList(from, Math.min(tasks.size(), from + SEGMENT_CAPACITY)));
+            Segment s = new Segment(nextId++, chunk);
+            writeSegment(s);
+            segments.add(s);
+        }
+        writeManifest();
+        for (Segment s : old) {
+            Files.deleteIfExists(segmentFile(s.id));
+        }
+    }
+
+    /**
+     * Appends a task, rewriting only the last segment or starting a new one.
+     *
+     * @param t the task to append
+     * @throws IOException if the segment or manifest cannot be written
+     */
+    public void add(Task t) throws IOException {
+        open();
+        Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last == null || last.tasks.size() >= SEGMENT_CAPACITY) {
+            last = new Segment(nextId++, new ArrayList<>());
+            last.tasks.add(t);
+            writeSegment(last);
+            segments.add(last);
+            writeManifest();
+        } else {
+            last.tasks.add(t);
+            writeSegment(last);
+        }
+    }
+
+    /**
+     * Replaces the tasks at the given positions, rewriting each affected segment once.
+     *
+     * @param positions distinct 0-based positions, in increasing order
+     * @param tasks     the new task for each position, e.g. the same task after it was marked
+     * @throws IOException if a segment cannot be written
+     */
+    public void set(int[] positions, Task[] tasks) throws IOException {
+        int k = 0;
+        int first = 0;
+        for (int i = 0; i < segments.size() && k < positions.length; i++) {
+            Segment s = segments.get(i);
+            int end = first + s.tasks.size();
+            boolean touched = false;
+            for (; k < positions.length && positions[k] < end; k++) {
+                s.tasks.set(positions[k] - first, tasks[k]);
+                touched = true;
+            }
+            if (touched) {
+                writeSegment(s);
+            }
+            first = end;
+        }
+        if (k < positions.length) {
+            throw new IndexOutOfBoundsException("Task " + (positions[k] + 1) + " is not in any segment.");
+        }
+    }
+
+    /**
+     * Removes the tasks at the given positions, rewriting each affected segment once unless
+     * it becomes sparse enough to be merged into a neighbour.
+     *
+     * @param positions distinct 0-based positions, in increasing order
+     * @throws IOException if a segment or the manifest cannot be written
+     */
+    public void remove(int[] positions) throws IOException {
+        List<Segment> touched = new ArrayList<>();
+        int k = 0;
+        int first = 0;
+        for (int i = 0; i < segments.size() && k < positions.length; i++) {
+            Segment s = segments.get(i);
+            int end = first + s.tasks.size();
+            if (positions[k] < end) {
+                // Keep the tasks between removed positions, in one pass over the segment.
+                List<Task> kept = new ArrayList<>(s.tasks.size());
+                for (int j = 0; j < s.tasks.size(); j++) {
+                    if (k < positions.length && positions[k] == first + j) {
+                        k++;
+                    } else {
+                        kept.add(s.tasks.get(j));
+                    }
+                }
+                s.tasks.clear();
+                s.tasks.addAll(kept);
+                touched.add(s);
+            }
+            first = end;
+        }
+        if (k < positions.length) {
+            throw new IndexOutOfBoundsException("Task " + (positions[k] + 1) + " is not in any segment.");
+        }
+        // Highest first, so merging a segment into the one before it never moves one still to come.
+        for (int t = touched.size() - 1; t >= 0; t--) {
+            int at = segments.indexOf(touched.get(t));
+            if (at >= 0 && !compact(at)) {
+                writeSegment(touched.get(t));
+            }
+        }
+    }
+
+    /**
+     * Merges segment {@code k} into a neighbour if it has fallen below a quarter of its
+     * capacity and the merged segment still fits.
+     * <p>
+     * The merged tasks go to a new segment file, and the old files are only deleted once
+     * the manifest lists the new one in their place, so a crash at any point leaves the
+     * manifest naming each task exactly once.
+     * </p>
+     *
+     * @return {@code true} if the segment was merged or dropped
+     */
+    private boolean compact(int k) throws IOException {
+        Segment s = segments.get(k);
+        if (s.tasks.size() >= SEGMENT_CAPACITY / 4) {
+            return false;
+        }
+        if (s.tasks.isEmpty()) {
+            segments.remove(k);
+            writeManifest();
+            Files.deleteIfExists(segmentFile(s.id));
+            return true;
+        }
+        int first;
+        if (k > 0 && segments.get(k - 1).tasks.size() + s.tasks.size() <= SEGMENT_CAPACITY) {
+            first = k - 1;
+        } else if (k + 1 < segments.size() && segments.get(k + 1).tasks.size() + s.tasks.size() <= SEGMENT_CAPACITY) {
+            first = k;
+        } else {
+            return false;
+        }
+        Segment a = segments.get(first);
+        Segment b = segments.get(first + 1);
+        List<Task> tasks = new ArrayList<>(a.tasks.size() + b.tasks.size());
+        tasks.addAll(a.tasks);
+        tasks.addAll(b.tasks);
+        Segment merged = new Segment(nextId++, tasks);
+        writeSegment(merged);
+        segments.set(first, merged);
+        segments.remove(first + 1);
+        writeManifest();
+        Files.deleteIfExists(segmentFile(a.id));
+        Files.deleteIfExists(segmentFile(b.id));
+        return true;
+    }
+
+    private List<Task> readSegment(int id) {
+        try {
+            return segmentFormat.read(segmentFile(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSegment(Segment s) throws IOException {
+        Path target = segmentFile(s.id);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        segmentFormat.write(tmp, s.tasks);
+        replace(tmp, target);
+    }
+
+    private void writeManifest() throws IOException {
+        StringBuilder sb = new StringBuilder(MANIFEST_HEADER).append('\n');
+        for (Segment s : segments) {
+            sb.append(s.id).append('\n');
+        }
+        Path target = dir.resolve(MANIFEST);
+        Path tmp = dir.resolve(MANIFEST + ".tmp");
+        Files.writeString(tmp, sb, StandardCharsets.UTF_8);
+        replace(tmp, target);
+    }
+
+    /** Atomically replaces {@code target} with {@code tmp}, fsyncing first if durable. */
+    private void replace(Path tmp, Path target) throws IOException {
+        if (durable) {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ch.force(true);
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Creates the directory and an empty manifest if they do not exist yet. */
+    private void open() throws IOException {
+        if (opened) {
+            return;
+        }
+        Files.createDirectories(dir);
+        if (Files.notExists(dir.resolve(MANIFEST))) {
+            writeManifest();
+        }
+        opened = true;
+    }
+
+    private void requireOwn(Path dir) {
+        if (!dir.equals(this.dir)) {
+            throw new IllegalArgumentException("This store manages " + this.dir + ", not " + dir + ".");
+        }
+    }
+
+    private Path segmentFile(int id) {
+        return dir.resolve(String.format("%08d.seg", id));
+    }
+}
@@ -0,0 +1,88 @@
+package resonant.storage;
+
+import resonant.tasks.Task;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * An on-disk encoding for a full snapshot of the task list.
+ * <p>
+ * {@link resonant.Storage} writes a snapshot with one of these formats whenever the journal
+ * is compacted, and reads it back before replaying the journal on startup.
+ * </p>
+ */
+public interface SnapshotFormat {
+
+    /** Checkpoint of a snapshot that does not record which journal records it contains. */
+    long NO_CHECKPOINT = -1;
+
+    /**
+     * Reads every well-formed task from the given snapshot file.
+     *
+     * @param file the snapshot file; it must exist
+     * @return the tasks in file order
+     * @throws IOException if the file cannot be read or is not in this format
+     */
+    List<Task> read(Path file) throws IOException;
+
+    /**
+     * Writes the given tasks to the snapshot file, replacing its previous contents.
+     *
+     * @param file  the snapshot file
+     * @param tasks the tasks to write
+     * @throws IOException if an I/O error occurs while writing
+     */
+    void write(Path file, List<Task> tasks) throws IOException;
+
+    /**
+     * Writes the given tasks together with the journal sequence number they reflect.
+     * <p>
+     * Formats that cannot store a checkpoint ignore it and write a plain snapshot.
+     * </p>
+     *
+     * @param file       the snapshot file
+     * @param tasks      the tasks to write
+     * @param checkpoint the sequence number of the last journal record applied to {@code tasks}
+     * @throws IOException if an I/O error occurs while writing
+     */
+    default void write(Path file, List<Task> tasks, long checkpoint) throws IOException {
+        write(file, tasks);
+    }
+
+    /**
+     * Returns the checkpoint stored in a snapshot file.
+     *
+     * @param file the snapshot file; it must exist
+     * @return the sequence number of the last journal record the snapshot contains, or
+     *         {@link #NO_CHECKPOINT} if the snapshot does not record one
+     * @throws IOException if the file cannot be read or its header is damaged
+     */
+    default long checkpoint(Path file) throws IOException {
+        return NO_CHECKPOINT;
+    }
+
+    /**
+     * Picks the format for a data file from its extension.
+     * <p>
+     * Files ending in {@code .txt} use the legacy {@link PipeFormat}, and names ending in
+     * {@code .seg} are directories managed by a {@link SegmentedStore}; everything else uses
+     * the compact {@link BinaryFormat}.
+     * </p>
+     *
+     * @param file       the data file
+     * @param durability the durability mode, used by formats that write their own files
+     * @return the format to read and write it with
+     */
+    static SnapshotFormat forFile(Path file, Durability durability) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".txt")) {
+            return new PipeFormat();
+        }
+        if (name.endsWith(".seg")) {
+            return new SegmentedStore(file, durability != Durability.PERIODIC);
+        }
+        return new BinaryFormat();
+    }
+}
@@ -0,0 +1,15 @@
+package resonant.tasks;
+
+/**
+ * A task list that can remove many positions in one pass, where removing them one at a time
+ * would shift or rebalance the list once per position.
+ */
+public interface BulkRemovable {
+
+    /**
+     * Removes the tasks at the given positions.
+     *
+     * @param positions distinct 0-based positions within the list, in increasing order
+     */
+    void removePositions(int[] positions);
+}
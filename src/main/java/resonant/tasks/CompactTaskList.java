@@ -0,0 +1,388 @@
+package resonant.tasks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * A task list that stores its tasks in parallel primitive arrays instead of one object per task.
+ * <p>
+ * Each position has a type byte, a bit in a done bitset, and the offset of its text fields
+ * in a shared byte arena, where the description, then {@code by} or {@code from}/{@code to},
+ * are stored as varint-length-prefixed UTF-8. A task therefore costs a few bytes of
+ * bookkeeping plus its text, instead of an object header and a {@link String} per field.
+ * The times parsed from a deadline's or event's text are kept alongside, as epoch seconds,
+ * so that views are built without parsing the text again.
+ * </p>
+ *
+ * <p>
+ * {@link #get} returns a freshly built {@link Task} view; changing the view does not change
+ * the list, so callers must write changed tasks back with {@link #set}. Setting a task whose
+ * text is unchanged, e.g. after marking it, only flips its done bit. Text that is replaced
+ * or removed is left in the arena and reclaimed once it makes up half of it.
+ * </p>
+ */
+public class CompactTaskList extends AbstractList<Task> implements RandomAccess, Snapshottable, BulkRemovable {
+
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+
+    /** Stored in place of a time that is absent or was not recognized. */
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private byte[] types;
+    private long[] done;
+    private int[] starts;
+    private int size;
+
+    /** The due time of a deadline, or the start of an event, in epoch seconds. */
+    private long[] firstTimes;
+
+    /** The end of an event, in epoch seconds. */
+    private long[] secondTimes;
+
+    private byte[] arena;
+    private int arenaUsed;
+    private int garbage;
+
+    /** Scratch buffer holding the encoded fields of the task being added or set. */
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Constructs an empty {@code CompactTaskList}.
+     */
+    public CompactTaskList() {
+        this.types = new byte[16];
+        this.done = new long[1];
+        this.starts = new int[16];
+        this.firstTimes = new long[16];
+        this.secondTimes = new long[16];
+        this.arena = new byte[1024];
+    }
+
+    /**
+     * Constructs a {@code CompactTaskList} holding the given tasks, in order.
+     *
+     * @param tasks the tasks to copy
+     */
+    public CompactTaskList(Collection<? extends Task> tasks) {
+        this();
+        ensureCapacity(tasks.size());
+        for (Task t : tasks) {
+            add(t);
+        }
+    }
+
+    private CompactTaskList(CompactTaskList other) {
+        this.types = Arrays.copyOf(other.types, Math.max(16, other.size));
+        this.done = Arrays.copyOf(other.done, Math.max(1, (other.size + 63) >>> 6));
+        this.starts = Arrays.copyOf(other.starts, Math.max(16, other.size));
+        this.firstTimes = Arrays.copyOf(other.firstTimes, Math.max(16, other.size));
+        this.secondTimes = Arrays.copyOf(other.secondTimes, Math.max(16, other.size));
+        this.size = other.size;
+        this.arena = Arrays.copyOf(other.arena, Math.max(1024, other.arenaUsed));
+        this.arenaUsed = other.arenaUsed;
+        this.garbage = other.garbage;
+    }
+
+    /**
+     * Returns an independent copy of this list, copying arrays rather than building tasks.
+     *
+     * @return a list with the current contents
+     */
+    @Override
+    public CompactTaskList snapshot() {
+        return new CompactTaskList(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size);
+        int[] pos = { starts[index] };
+        String desc = string(pos);
+        Task t;
+        switch (types[index]) {
+            case DEADLINE -> t = new Deadline(desc, string(pos), time(firstTimes[index]));
+            case EVENT -> {
+                String from = string(pos);
+                t = new Event(desc, from, string(pos), time(firstTimes[index]), time(secondTimes[index]));
+            }
+            default -> t = new Todo(desc);
+        }
+        if (isDone(index)) {
+            t.mark();
+        }
+        return t;
+    }
+
+    /**
+     * Returns whether the task at the given position is done, without building a view.
+     *
+     * @param index the 0-based position
+     * @return {@code true} if the task is done
+     */
+    public boolean isDone(int index) {
+        checkIndex(index, size);
+        return (done[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    public Task set(int index, Task t) {
+        Task old = get(index);
+        maybeCompactArena();
+        int len = encode(t);
+        int start = starts[index];
+        int oldLen = fieldsLength(start, types[index]);
+        if (types[index] != typeOf(t) || oldLen != len
+                || !Arrays.equals(arena, start, start + len, scratch, 0, len)) {
+            garbage += oldLen;
+            types[index] = typeOf(t);
+            starts[index] = append(len);
+        }
+        setTimes(index, t);
+        setDone(index, t.isDone());
+        return old;
+    }
+
+    @Override
+    public void add(int index, Task t) {
+        checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        maybeCompactArena();
+        int len = encode(t);
+        int start = append(len);
+        System.arraycopy(types, index, types, index + 1, size - index);
+        System.arraycopy(starts, index, starts, index + 1, size - index);
+        System.arraycopy(firstTimes, index, firstTimes, index + 1, size - index);
+        System.arraycopy(secondTimes, index, secondTimes, index + 1, size - index);
+        shiftDone(index, 1);
+        types[index] = typeOf(t);
+        starts[index] = start;
+        setTimes(index, t);
+        size++;
+        setDone(index, t.isDone());
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task old = get(index);
+        garbage += fieldsLength(starts[index], types[index]);
+        System.arraycopy(types, index + 1, types, index, size - index - 1);
+        System.arraycopy(starts, index + 1, starts, index, size - index - 1);
+        System.arraycopy(firstTimes, index + 1, firstTimes, index, size - index - 1);
+        System.arraycopy(secondTimes, index + 1, secondTimes, index, size - index - 1);
+        shiftDone(index, -1);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    /**
+     * Removes the tasks at the given positions, moving each remaining task at most once.
+     *
+     * @param positions distinct 0-based positions within the list, in increasing order
+     */
+    @Override
+    public void removePositions(int[] positions) {
+        if (positions.length == 0) {
+            return;
+        }
+        checkIndex(positions[0], size);
+        checkIndex(positions[positions.length - 1], size);
+        int write = positions[0];
+        int k = 0;
+        for (int read = positions[0]; read < size; read++) {
+            if (k < positions.length && positions[k] == read) {
+                garbage += fieldsLength(starts[read], types[read]);
+                k++;
+                continue;
+            }
+            types[write] = types[read];
+            starts[write] = starts[read];
+            firstTimes[write] = firstTimes[read];
+            secondTimes[write] = secondTimes[read];
+            setDone(write, (done[read >>> 6] & (1L << read)) != 0);
+            write++;
+        }
+        for (int i = write; i < size; i++) {
+            setDone(i, false);
+        }
+        size = write;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        arenaUsed = 0;
+        garbage = 0;
+        Arrays.fill(done, 0);
+        modCount++;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n > types.length) {
+            int cap = Math.max(n, types.length + (types.length >> 1));
+            types = Arrays.copyOf(types, cap);
+            starts = Arrays.copyOf(starts, cap);
+            firstTimes = Arrays.copyOf(firstTimes, cap);
+            secondTimes = Arrays.copyOf(secondTimes, cap);
+        }
+        if ((n + 63) >>> 6 > done.length) {
+            done = Arrays.copyOf(done, Math.max((n + 63) >>> 6, done.length * 2));
+        }
+    }
+
+    private void setDone(int index, boolean value) {
+        if (value) {
+            done[index >>> 6] |= 1L << index;
+        } else {
+            done[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Shifts the done bits at and after {@code from} by one position, up ({@code +1}) for an
+     * insert or down ({@code -1}) for a removal.
+     */
+    private void shiftDone(int from, int by) {
+        if (by > 0) {
+            for (int i = size; i > from; i--) {
+                setDone(i, (done[(i - 1) >>> 6] & (1L << (i - 1))) != 0);
+            }
+        } else {
+            for (int i = from; i < size - 1; i++) {
+                setDone(i, (done[(i + 1) >>> 6] & (1L << (i + 1))) != 0);
+            }
+            setDone(size - 1, false);
+        }
+    }
+
+    /** Records the parsed times of {@code t} at {@code index}. */
+    private void setTimes(int index, Task t) {
+        if (t instanceof Deadline) {
+            firstTimes[index] = epochSecond(((Deadline) t).due());
+            secondTimes[index] = NO_TIME;
+        } else if (t instanceof Event) {
+            firstTimes[index] = epochSecond(((Event) t).start());
+            secondTimes[index] = epochSecond(((Event) t).end());
+        } else {
+            firstTimes[index] = NO_TIME;
+            secondTimes[index] = NO_TIME;
+        }
+    }
+
+    private static long epochSecond(LocalDateTime t) {
+        return t == null ? NO_TIME : t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime time(long epochSecond) {
+        return epochSecond == NO_TIME ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private static byte typeOf(Task t) {
+        if (t instanceof Deadline) return DEADLINE;
+        if (t instanceof Event) return EVENT;
+        return TODO;
+    }
+
+    /** Encodes the text fields of {@code t} into {@link #scratch} and returns their length. */
+    private int encode(Task t) {
+        int n = 0;
+        n = putString(n, t.description());
+        if (t instanceof Deadline) {
+            n = putString(n, ((Deadline) t).by());
+        } else if (t instanceof Event) {
+            n = putString(n, ((Event) t).from());
+            n = putString(n, ((Event) t).to());
+        }
+        return n;
+    }
+
+    private int putString(int n, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        if (scratch.length < n + 5 + b.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(n + 5 + b.length, scratch.length * 2));
+        }
+        int v = b.length;
+        while ((v & ~0x7f) != 0) {
+            scratch[n++] = (byte) ((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        scratch[n++] = (byte) v;
+        System.arraycopy(b, 0, scratch, n, b.length);
+        return n + b.length;
+    }
+
+    /** Copies the first {@code len} bytes of {@link #scratch} to the end of the arena. */
+    private int append(int len) {
+        if (arenaUsed + len > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arenaUsed + len, arena.length * 2));
+        }
+        System.arraycopy(scratch, 0, arena, arenaUsed, len);
+        int start = arenaUsed;
+        arenaUsed += len;
+        return start;
+    }
+
+    /** Rewrites the arena so that it holds only the fields of live tasks, once half of it is garbage. */
+    private void maybeCompactArena() {
+        if (garbage == 0 || garbage < arenaUsed / 2) {
+            return;
+        }
+        byte[] fresh = new byte[Math.max(1024, arenaUsed - garbage + scratch.length)];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            int len = fieldsLength(starts[i], types[i]);
+            System.arraycopy(arena, starts[i], fresh, n, len);
+            starts[i] = n;
+            n += len;
+        }
+        arena = fresh;
+        arenaUsed = n;
+        garbage = 0;
+    }
+
+    private int fieldsLength(int start, byte type) {
+        int fields = type == DEADLINE ? 2 : type == EVENT ? 3 : 1;
+        int[] pos = { start };
+        for (int f = 0; f < fields; f++) {
+            int len = varint(pos);
+            pos[0] += len;
+        }
+        return pos[0] - start;
+    }
+
+    private int varint(int[] pos) {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = arena[pos[0]++];
+            v |= (b & 0x7f) << shift;
+            if (b >= 0) return v;
+        }
+    }
+
+    private String string(int[] pos) {
+        int len = varint(pos);
+        String s = new String(arena, pos[0], len, StandardCharsets.UTF_8);
+        pos[0] += len;
+        return s;
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + bound);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package resonant.tasks;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recognizes the dates and times that users type into deadlines and date queries.
+ * <p>
+ * Accepted forms are {@code yyyy-MM-dd} and {@code d/M/yyyy}, each optionally followed by
+ * a time as {@code HH:mm} or {@code HHmm}, e.g. {@code 2025-10-10 18:00} or
+ * {@code 10/10/2025 1800}. A date without a time means the start of that day. Any other
+ * text, such as "monday 6pm", is not a date; it is rejected without throwing, so that
+ * loading many free-form deadlines stays cheap.
+ * </p>
+ *
+ * <p>
+ * The end of a time range may also be a bare time, e.g. {@code /from 2025-10-10 14:00 /to 16:00},
+ * which falls on the day the range starts; a bare date ends with that day.
+ * </p>
+ */
+public final class DateParser {
+
+    private static final Pattern ISO = Pattern.compile(
+            "(\\d{4})-(\\d{1,2})-(\\d{1,2})(?:[ T](\\d{1,2}):?(\\d{2}))?");
+    private static final Pattern DMY = Pattern.compile(
+            "(\\d{1,2})/(\\d{1,2})/(\\d{4})(?: (\\d{1,2}):?(\\d{2}))?");
+    private static final Pattern TIME = Pattern.compile("(\\d{1,2}):?(\\d{2})");
+
+    private DateParser() {
+    }
+
+    /**
+     * Parses a date with an optional time.
+     *
+     * @param text the text to parse
+     * @return the date and time, or {@code null} if the text is not in an accepted form
+     */
+    public static LocalDateTime parse(String text) {
+        return parse(text, false);
+    }
+
+    /**
+     * Parses the end of a time range that begins at {@code start}.
+     *
+     * @param text  the text to parse
+     * @param start the start of the range, or {@code null} if it is not a date
+     * @return the end, exclusive, or {@code null} if either bound is not in an accepted form
+     */
+    public static LocalDateTime parseEnd(String text, LocalDateTime start) {
+        if (start == null || text == null) {
+            return null;
+        }
+        LocalDateTime end = parse(text, true);
+        if (end != null) {
+            return end;
+        }
+        Matcher m = TIME.matcher(text.trim());
+        if (m.matches()) {
+            try {
+                return start.with(LocalTime.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))));
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a date with an optional time; a date alone means the start of that day, or
+     * with {@code endOfDay}, the start of the next one.
+     */
+    private static LocalDateTime parse(String text, boolean endOfDay) {
+        if (text == null) {
+            return null;
+        }
+        String s = text.trim();
+        if (s.isEmpty() || !Character.isDigit(s.charAt(0))) {
+            return null;
+        }
+        Matcher m = ISO.matcher(s);
+        if (m.matches()) {
+            return of(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), endOfDay);
+        }
+        m = DMY.matcher(s);
+        if (m.matches()) {
+            return of(m.group(3), m.group(2), m.group(1), m.group(4), m.group(5), endOfDay);
+        }
+        return null;
+    }
+
+    private static LocalDateTime of(String year, String month, String day, String hour, String minute,
+            boolean endOfDay) {
+        try {
+            LocalDateTime t = LocalDateTime.of(Integer.parseInt(year), Integer.parseInt(month), Integer.parseInt(day),
+                    hour == null ? 0 : Integer.parseInt(hour), minute == null ? 0 : Integer.parseInt(minute));
+            return hour == null && endOfDay ? t.plusDays(1) : t;
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+}
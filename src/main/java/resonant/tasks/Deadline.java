@@ -1,13 +1,19 @@
 package resonant.tasks;
 
+import java.time.LocalDateTime;
+
 /**
  * Represents a task with a specific deadline.
  * <p>
  * A {@code Deadline} has a description and a due date/time,
  * and is displayed with the format: {@code [D][X] description (by: date/time)}.
+ * The due text is kept as typed for display; if it is a date that {@link DateParser}
+ * recognizes, it is also parsed once, when the task is created, so that deadlines can be
+ * ordered and filtered by time.
  */
 public class Deadline extends Task {
     private final String by;
+    private final LocalDateTime due;
 
     /**
      * Constructs a {@code Deadline} task with the specified description and due date/time.
@@ -16,8 +22,20 @@ public class Deadline extends Task {
      * @param by          The due date/time of the task.
      */
     public Deadline(String description, String by) {
+        this(description, by, DateParser.parse(by));
+    }
+
+    /**
+     * Constructs a {@code Deadline} whose due text has already been parsed.
+     *
+     * @param description The description of the deadline task.
+     * @param by          The due date/time as typed.
+     * @param due         {@code by} as parsed by {@link DateParser#parse}, or {@code null}.
+     */
+    Deadline(String description, String by, LocalDateTime due) {
         super(description);
         this.by = by;
+        this.due = due;
     }
 
     /**
@@ -29,6 +47,22 @@ public class Deadline extends Task {
         return by;
     }
 
+    /**
+     * Returns the parsed due date/time of this deadline task.
+     *
+     * @return The due date/time, or {@code null} if {@link #by()} is not a recognized date.
+     */
+    public LocalDateTime due() {
+        return due;
+    }
+
+    @Override
+    public Deadline copy() {
+        Deadline d = new Deadline(description, by, due);
+        d.isDone = isDone;
+        return d;
+    }
+
     /**
      * Returns the string representation of the deadline task.
      *
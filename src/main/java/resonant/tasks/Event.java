@@ -1,14 +1,20 @@
 package resonant.tasks;
 
+import java.time.LocalDateTime;
+
 /**
  * Represents a task that spans a specific time period.
  * <p>
  * An {@code Event} has a description, a start time, and an end time.
  * It is displayed in the format: {@code [E][X] description (from: start to: end)}.
+ * If both times are dates that {@link DateParser} recognizes, the event is also parsed
+ * once into a time interval, so that clashing events can be found.
  */
 public class Event extends Task {
     private final String from;
     private final String to;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
 
     /**
      * Constructs an {@code Event} task with the specified description, start time, and end time.
@@ -21,6 +27,28 @@ public class Event extends Task {
         super(description);
         this.from = from;
         this.to = to;
+        LocalDateTime s = DateParser.parse(from);
+        LocalDateTime e = DateParser.parseEnd(to, s);
+        boolean valid = s != null && e != null && e.isAfter(s);
+        this.start = valid ? s : null;
+        this.end = valid ? e : null;
+    }
+
+    /**
+     * Constructs an {@code Event} whose times have already been parsed and validated.
+     *
+     * @param description The description of the event.
+     * @param from        The starting time as typed.
+     * @param to          The ending time as typed.
+     * @param start       The parsed start, or {@code null} if the times are not a valid range.
+     * @param end         The parsed end, or {@code null} if the times are not a valid range.
+     */
+    Event(String description, String from, String to, LocalDateTime start, LocalDateTime end) {
+        super(description);
+        this.from = from;
+        this.to = to;
+        this.start = start;
+        this.end = end;
     }
 
     /**
@@ -41,6 +69,31 @@ public class Event extends Task {
         return to;
     }
 
+    /**
+     * Returns the parsed start of this event.
+     *
+     * @return The start, or {@code null} if the event's times are not a recognized interval.
+     */
+    public LocalDateTime start() {
+        return start;
+    }
+
+    /**
+     * Returns the parsed end of this event, exclusive.
+     *
+     * @return The end, or {@code null} if the event's times are not a recognized interval.
+     */
+    public LocalDateTime end() {
+        return end;
+    }
+
+    @Override
+    public Event copy() {
+        Event e = new Event(description, from, to, start, end);
+        e.isDone = isDone;
+        return e;
+    }
+
     /**
      * Returns the string representation of the event.
      *
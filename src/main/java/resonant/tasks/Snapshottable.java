@@ -0,0 +1,17 @@
+package resonant.tasks;
+
+import java.util.List;
+
+/**
+ * A task list that can copy itself more cheaply than task by task, e.g. by copying arrays
+ * or sharing immutable structure.
+ */
+public interface Snapshottable {
+
+    /**
+     * Returns a copy of this list that is not affected by later changes to it.
+     *
+     * @return an independent list with the current contents
+     */
+    List<Task> snapshot();
+}
@@ -0,0 +1,113 @@
+package resonant.tasks;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A bounded pool of canonical strings for task text, so that repeated descriptions and
+ * times such as "monday 6pm" are stored once however many tasks use them.
+ * <p>
+ * Unlike {@link String#intern()}, the pool holds its strings weakly: once no task refers to
+ * a string it may be garbage collected and its entry disappears. At most {@code capacity}
+ * strings are pooled at a time; beyond that, new strings are returned as they are, while
+ * strings already pooled are still shared. The pool also counts the duplicates it has
+ * merged, as a rough measure of the memory saved.
+ * </p>
+ */
+public final class StringPool {
+
+    /** The pool used when loading tasks and when adding them from commands. */
+    public static final StringPool SHARED = new StringPool(1 << 16);
+
+    private final int capacity;
+    private final Map<String, WeakReference<String>> pool = new WeakHashMap<>();
+    private long merged;
+    private long bytesSaved;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param capacity the maximum number of distinct strings held at a time
+     */
+    public StringPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the pooled string equal to {@code s}, pooling {@code s} itself if there is none
+     * and the pool has room.
+     *
+     * @param s the string, or {@code null}
+     * @return a string equal to {@code s}
+     */
+    public synchronized String intern(String s) {
+        if (s == null) {
+            return null;
+        }
+        WeakReference<String> ref = pool.get(s);
+        String pooled = ref == null ? null : ref.get();
+        if (pooled != null) {
+            if (pooled != s) {
+                merged++;
+                bytesSaved += footprint(s);
+            }
+            return pooled;
+        }
+        if (pool.size() < capacity) {
+            pool.put(s, new WeakReference<>(s));
+        }
+        return s;
+    }
+
+    /**
+     * Returns the number of distinct strings currently pooled.
+     *
+     * @return the number of live entries
+     */
+    public synchronized int distinct() {
+        return pool.size();
+    }
+
+    /**
+     * Returns the maximum number of distinct strings held at a time.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of strings replaced by an equal pooled string so far.
+     *
+     * @return the number of merged duplicates
+     */
+    public synchronized long merged() {
+        return merged;
+    }
+
+    /**
+     * Returns an estimate of the heap freed by merging duplicates so far, in bytes.
+     *
+     * @return the estimated bytes saved
+     */
+    public synchronized long bytesSaved() {
+        return bytesSaved;
+    }
+
+    /**
+     * Estimates the heap taken by a string: its object header and fields, plus its backing
+     * array of one byte per character, or two if any character is outside Latin-1.
+     */
+    private static long footprint(String s) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xff) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + ((16L + (long) s.length() * bytesPerChar + 7) & ~7L);
+    }
+}
@@ -57,6 +57,21 @@ public class Task {
         return description;
     }
 
+    /**
+     * Returns a new task with the same fields and completion status as this one.
+     * <p>
+     * Changing the copy does not affect this task, which lets a list that is shared with
+     * readers replace a task instead of modifying it in place.
+     * </p>
+     *
+     * @return An independent copy of this task.
+     */
+    public Task copy() {
+        Task t = new Task(description);
+        t.isDone = isDone;
+        return t;
+    }
+
     /**
      * Returns the status icon of the task.
      * {@code "X"} if the task is done, otherwise a blank space.
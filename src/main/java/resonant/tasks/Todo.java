@@ -17,6 +17,13 @@ public class Todo extends Task {
         super(description);
     }
 
+    @Override
+    public Todo copy() {
+        Todo t = new Todo(description);
+        t.isDone = isDone;
+        return t;
+    }
+
     /**
      * Returns a string representation of the to-do task.
      * The output includes the type indicator {@code [T]} and the base task details.
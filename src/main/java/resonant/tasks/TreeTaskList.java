@@ -0,0 +1,334 @@
+package resonant.tasks;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A task list stored as a balanced (AVL) tree ordered by position.
+ * <p>
+ * Every node records the size of its subtree, so the task at a position is found by
+ * descending from the root, and inserting or removing at any position rebalances only the
+ * path to it. {@link #get}, {@link #add(int, Task)}, {@link #set} and {@link #remove(int)}
+ * therefore all take O(log n), where an array-backed list shifts every later element on
+ * insert and remove.
+ * </p>
+ *
+ * <p>
+ * Nodes are immutable: an update copies the O(log n) nodes on the path it changes and
+ * shares the rest. This makes {@link #snapshot()} O(1).
+ * </p>
+ */
+public class TreeTaskList extends AbstractList<Task> implements Snapshottable, BulkRemovable {
+
+    /** An immutable tree node. */
+    private static final class Node {
+        final Task task;
+        final Node left;
+        final Node right;
+        final int size;
+        final int height;
+
+        Node(Task task, Node left, Node right) {
+            this.task = task;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    /** Estimated heap taken by one {@link Node}: an object header, three references and two ints. */
+    private static final int NODE_BYTES = 32;
+
+    /** Estimated heap taken by one task object, not counting the strings it shares with its copies. */
+    private static final int TASK_BYTES = 32;
+
+    /** Estimated heap taken by one {@code TreeTaskList} object. */
+    private static final int LIST_BYTES = 24;
+
+    private Node root;
+
+    /**
+     * Constructs an empty {@code TreeTaskList}.
+     */
+    public TreeTaskList() {
+    }
+
+    /**
+     * Constructs a {@code TreeTaskList} holding the given tasks, in order.
+     *
+     * @param tasks the tasks to copy
+     */
+    public TreeTaskList(Collection<? extends Task> tasks) {
+        Task[] all = tasks.toArray(new Task[0]);
+        this.root = build(all, 0, all.length);
+    }
+
+    private TreeTaskList(Node root) {
+        this.root = root;
+    }
+
+    @Override
+    public TreeTaskList snapshot() {
+        return new TreeTaskList(root);
+    }
+
+    /**
+     * Makes this list hold the same tasks as {@code version}, in O(1), by sharing its tree.
+     *
+     * @param version the list to revert to, typically an earlier {@link #snapshot()}
+     */
+    public void revertTo(TreeTaskList version) {
+        root = version.root;
+        modCount++;
+    }
+
+    /**
+     * Estimates the heap that {@code versions} keep alive beyond what this list holds.
+     * <p>
+     * Versions made from one another share every node their updates did not copy, so each
+     * shared node and task is counted once, and only those this list does not also hold are
+     * counted at all. The walk skips any subtree it has already seen, so it visits each
+     * distinct node once.
+     * </p>
+     *
+     * @param versions earlier or later versions of this list
+     * @return the estimated number of bytes
+     */
+    public long retainedBytes(Collection<TreeTaskList> versions) {
+        Set<Node> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Task> tasks = Collections.newSetFromMap(new IdentityHashMap<>());
+        collect(root, nodes, tasks);
+        int ownNodes = nodes.size();
+        int ownTasks = tasks.size();
+        for (TreeTaskList v : versions) {
+            collect(v.root, nodes, tasks);
+        }
+        return (long) (nodes.size() - ownNodes) * NODE_BYTES + (long) (tasks.size() - ownTasks) * TASK_BYTES
+                + (long) versions.size() * LIST_BYTES;
+    }
+
+    private static void collect(Node n, Set<Node> nodes, Set<Task> tasks) {
+        while (n != null && nodes.add(n)) {
+            tasks.add(n.task);
+            collect(n.left, nodes, tasks);
+            n = n.right;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size());
+        Node n = root;
+        while (true) {
+            int left = size(n.left);
+            if (index < left) {
+                n = n.left;
+            } else if (index > left) {
+                index -= left + 1;
+                n = n.right;
+            } else {
+                return n.task;
+            }
+        }
+    }
+
+    @Override
+    public Task set(int index, Task t) {
+        Task old = get(index);
+        root = set(root, index, t);
+        return old;
+    }
+
+    @Override
+    public void add(int index, Task t) {
+        checkIndex(index, size() + 1);
+        root = insert(root, index, t);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task old = get(index);
+        root = delete(root, index);
+        modCount++;
+        return old;
+    }
+
+    /**
+     * Removes the tasks at the given positions.
+     * <p>
+     * A few positions are deleted one by one in O(log n) each, sharing the rest of the tree
+     * with earlier snapshots. Once that would cost more than a rebuild, the remaining tasks
+     * are collected in order and built into a new balanced tree in O(n).
+     * </p>
+     *
+     * @param positions distinct 0-based positions within the list, in increasing order
+     */
+    @Override
+    public void removePositions(int[] positions) {
+        if (positions.length == 0) {
+            return;
+        }
+        int n = size();
+        checkIndex(positions[0], n);
+        checkIndex(positions[positions.length - 1], n);
+        if ((long) positions.length * height(root) <= n) {
+            for (int k = positions.length - 1; k >= 0; k--) {
+                root = delete(root, positions[k]);
+            }
+        } else {
+            Task[] kept = new Task[n - positions.length];
+            int write = 0;
+            int k = 0;
+            int read = 0;
+            for (Task t : this) {
+                if (k < positions.length && positions[k] == read) {
+                    k++;
+                } else {
+                    kept[write++] = t;
+                }
+                read++;
+            }
+            root = build(kept, 0, kept.length);
+        }
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        modCount++;
+    }
+
+    /** Iterates in order with a stack of pending ancestors instead of one descent per element. */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private final ArrayDeque<Node> stack = new ArrayDeque<>();
+            private final int expectedModCount = modCount;
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node n) {
+                for (; n != null; n = n.left) {
+                    stack.push(n);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public Task next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node n = stack.pop();
+                pushLeft(n.right);
+                return n.task;
+            }
+        };
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static Node build(Task[] tasks, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node(tasks[mid], build(tasks, from, mid), build(tasks, mid + 1, to));
+    }
+
+    private static Node set(Node n, int index, Task t) {
+        int left = size(n.left);
+        if (index < left) {
+            return new Node(n.task, set(n.left, index, t), n.right);
+        }
+        if (index > left) {
+            return new Node(n.task, n.left, set(n.right, index - left - 1, t));
+        }
+        return new Node(t, n.left, n.right);
+    }
+
+    private static Node insert(Node n, int index, Task t) {
+        if (n == null) {
+            return new Node(t, null, null);
+        }
+        int left = size(n.left);
+        if (index <= left) {
+            return balance(n.task, insert(n.left, index, t), n.right);
+        }
+        return balance(n.task, n.left, insert(n.right, index - left - 1, t));
+    }
+
+    private static Node delete(Node n, int index) {
+        int left = size(n.left);
+        if (index < left) {
+            return balance(n.task, delete(n.left, index), n.right);
+        }
+        if (index > left) {
+            return balance(n.task, n.left, delete(n.right, index - left - 1));
+        }
+        if (n.left == null) {
+            return n.right;
+        }
+        if (n.right == null) {
+            return n.left;
+        }
+        Node first = n.right;
+        while (first.left != null) {
+            first = first.left;
+        }
+        return balance(first.task, n.left, delete(n.right, 0));
+    }
+
+    /** Joins two subtrees whose heights differ by at most two under a new node, rotating if needed. */
+    private static Node balance(Task t, Node l, Node r) {
+        if (height(l) > height(r) + 1) {
+            if (height(l.left) >= height(l.right)) {
+                return new Node(l.task, l.left, new Node(t, l.right, r));
+            }
+            return new Node(l.right.task, new Node(l.task, l.left, l.right.left), new Node(t, l.right.right, r));
+        }
+        if (height(r) > height(l) + 1) {
+            if (height(r.right) >= height(r.left)) {
+                return new Node(r.task, new Node(t, l, r.left), r.right);
+            }
+            return new Node(r.left.task, new Node(t, l, r.left.left), new Node(r.task, r.left.right, r.right));
+        }
+        return new Node(t, l, r);
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + bound);
+        }
+    }
+}
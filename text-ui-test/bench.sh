@@ -0,0 +1,243 @@
+#!/usr/bin/env bash
+
+# Measurements behind the performance notes in the commit log.
+# Each case builds its own data, times Resonant end to end and prints what it measured.
+# Times are the best of three runs, with JVM startup and loading subtracted where the case
+# says so. Nothing is checked: run it on a commit and on its parent to compare.
+#
+# usage: ./bench.sh [tasks] [case ...]
+# cases: load memory find delete at scan parse stdin
+
+TASKS="${1:-1000000}"
+[ $# -gt 0 ] && shift
+CASES="${*:-load memory find delete at scan parse stdin}"
+BIN="$(cd .. && pwd)/bin"
+
+# create bin directory if it doesn't exist
+if [ ! -d "$BIN" ]
+then
+    mkdir "$BIN"
+fi
+
+# compile the code into the bin folder, terminates if error occurred
+if ! javac -encoding UTF-8 -Xlint:none -d "$BIN" $(find ../src/main/java -name '*.java')
+then
+    echo "********** BUILD FAILURE **********"
+    exit 1
+fi
+
+WORK="$(mktemp -d)"
+mkdir "$WORK/data"
+
+# run Resonant in the working directory, reading commands from stdin
+resonant() {
+    (cd "$WORK" && java -classpath "$BIN" resonant.Main "$@")
+}
+
+# print the best wall-clock time, in ms, of three runs of Resonant given these commands on stdin,
+# or "<file" to read them from a file in the working directory; a case that changes its data
+# sets SETUP to a command that puts the data back before each run
+best_ms() {
+    local input="$1"; shift
+    local best=""
+    for i in 1 2 3
+    do
+        ${SETUP:-:}
+        local start=$(date +%s%N)
+        if [ "${input#<}" != "$input" ]
+        then
+            resonant "$@" < "$WORK/${input#<}" > /dev/null 2>&1
+        else
+            printf '%b' "$input" | resonant "$@" > /dev/null 2>&1
+        fi
+        local t=$((($(date +%s%N) - start) / 1000000))
+        if [ -z "$best" ] || [ "$t" -lt "$best" ]
+        then
+            best=$t
+        fi
+    done
+    echo "$best"
+}
+
+# save todo t1 .. tN to data/<file>, unless it is there already
+prefill() {
+    local file="$1" n="$2"
+    [ -e "$WORK/data/$file" ] && return
+    seq 1 "$n" | sed 's/^/todo t/' > "$WORK/prefill.txt"
+    resonant --data "$file" --script prefill.txt > /dev/null
+}
+
+# copy data/binary.dat to data/scratch.dat, for a case to change
+scratch() {
+    rm -f "$WORK"/data/scratch.dat*
+    cp "$WORK/data/binary.dat" "$WORK/data/scratch.dat"
+}
+
+# print the heap, in KB, that Resonant still uses after loading and a full collection
+heap_kb() {
+    rm -f "$WORK/in" "$WORK/out"
+    mkfifo "$WORK/in"
+    (cd "$WORK" && exec java -classpath "$BIN" resonant.Main "$@" < in > out) &
+    local pid=$!
+    exec 4> "$WORK/in"
+    echo "memory" >&4
+    for i in $(seq 1 600)
+    do
+        grep -q "Memory report" "$WORK/out" && break
+        sleep 0.1
+    done
+    jcmd "$pid" GC.run > /dev/null
+    jcmd "$pid" GC.heap_info | sed -n 's/.*total [0-9]*K, used \([0-9]*\)K.*/\1/p' | awk '{ n += $1 } END { print n }'
+    echo "bye" >&4
+    exec 4>&-
+    wait "$pid"
+}
+
+# Startup with a large snapshot in the pipe format and in the binary format.
+bench_load() {
+    prefill pipe.txt "$TASKS"
+    prefill binary.dat "$TASKS"
+    local empty=$(best_ms 'bye\n' --data empty.dat)
+    local txt=$(best_ms 'bye\n' --data pipe.txt)
+    local dat=$(best_ms 'bye\n' --data binary.dat)
+    echo "load: $TASKS tasks in $((txt - empty)) ms from pipe.txt, $((dat - empty)) ms from binary.dat" \
+        "(startup of $empty ms subtracted)"
+}
+
+# Heap per task held in each in-memory layout.
+bench_memory() {
+    prefill binary.dat "$TASKS"
+    local empty=$(heap_kb --data empty.dat)
+    local line="memory: $TASKS todos take"
+    for backend in array compact tree
+    do
+        local kb=$(heap_kb --backend "$backend" --data binary.dat)
+        line="$line $(((kb - empty) * 1024 / TASKS)) bytes each as $backend,"
+    done
+    echo "${line%,} (heap of an empty list subtracted)"
+}
+
+# Selective finds answered from the trigram index, against finds too short for it, which
+# scan every task. The first long keyword builds the index.
+bench_find() {
+    prefill binary.dat "$TASKS"
+    local queries=200
+    echo "list /page 1" > "$WORK/none.txt"
+    echo "find t0000" > "$WORK/build.txt"
+    cp "$WORK/build.txt" "$WORK/indexed.txt"
+    # "t" and a number below N/10 is in about eleven descriptions
+    seq 1 "$queries" | awk -v n="$TASKS" '{ printf "find t%d\n", $1 * 7919 % (n / 10) + 1 }' >> "$WORK/indexed.txt"
+    echo "find zz" > "$WORK/scan1.txt"
+    seq 0 "$queries" | sed 's/.*/find zz/' > "$WORK/scan.txt"
+    local none=$(best_ms '' --data binary.dat --script none.txt)
+    local build=$(best_ms '' --data binary.dat --script build.txt)
+    local indexed=$(best_ms '' --data binary.dat --script indexed.txt)
+    local scan1=$(best_ms '' --data binary.dat --script scan1.txt)
+    local scan=$(best_ms '' --data binary.dat --script scan.txt)
+    echo "find: on $TASKS tasks the index took $((build - none)) ms to build, then" \
+        "$(((indexed - build) * 1000 / queries)) us per selective query;" \
+        "a scan took $(((scan - scan1) * 1000 / queries)) us per query"
+}
+
+# Deletes one task at a time from spread-out positions, in each in-memory layout. Both
+# scripts end with the same snapshot save, so only the extra deletes are left in the difference.
+bench_delete() {
+    prefill binary.dat "$TASKS"
+    local SETUP=scratch
+    local deletes=20000
+    echo "delete 1" > "$WORK/delete1.txt"
+    seq 1 "$deletes" | awk -v n="$TASKS" '{ printf "delete %d\n", $1 * 7919 % (n - $1) + 1 }' \
+        | cat "$WORK/delete1.txt" - > "$WORK/deletes.txt"
+    local line="delete: $deletes deletes from $TASKS tasks took"
+    for backend in array tree
+    do
+        local one=$(best_ms '' --backend "$backend" --data scratch.dat --script delete1.txt)
+        local all=$(best_ms '' --backend "$backend" --data scratch.dat --script deletes.txt)
+        line="$line $((all - one)) ms as $backend,"
+    done
+    echo "${line%,}"
+}
+
+# "at" queries against a list that is mostly events, spread over a year at different hours.
+# The first query builds the interval index.
+bench_at() {
+    local n=$((TASKS / 5)) queries=500
+    if [ ! -e "$WORK/data/events.dat" ]
+    then
+        seq 1 "$n" | awk '{
+            if ($1 % 10 == 0) { printf "todo t%d\n", $1; next }
+            h = 8 + $1 % 10
+            printf "event e%d /from 2025-%02d-%02d %02d:00 /to %02d:30\n", $1, $1 % 12 + 1, $1 % 28 + 1, h, h + 1 + $1 % 3
+        }' > "$WORK/events.txt"
+        resonant --data events.dat --script events.txt > /dev/null
+    fi
+    echo "list /page 1" > "$WORK/none.txt"
+    echo "at 2025-01-01 00:00" > "$WORK/at1.txt"
+    # each query falls inside the event numbered i
+    seq 1 "$queries" | awk -v n="$n" '{
+        i = $1 * 7919 % n + 1
+        printf "at 2025-%02d-%02d %02d:15\n", i % 12 + 1, i % 28 + 1, 8 + i % 10
+    }' | cat "$WORK/at1.txt" - > "$WORK/at.txt"
+    local none=$(best_ms '' --data events.dat --script none.txt)
+    local one=$(best_ms '' --data events.dat --script at1.txt)
+    local all=$(best_ms '' --data events.dat --script at.txt)
+    echo "at: on $n tasks the interval index took $((one - none)) ms to build, then" \
+        "$(((all - one) * 1000 / queries)) us per query"
+}
+
+# Finds too short for the trigram index, in mixed case so the case-insensitive match is
+# exercised, at three list sizes. Whether a scan is split across cores depends on the machine.
+bench_scan() {
+    local queries=100
+    local line="scan ($(nproc) cores): a short find took"
+    echo "find Zz" > "$WORK/scan1.txt"
+    seq 0 "$queries" | sed 's/.*/find Zz/' > "$WORK/scan.txt"
+    for n in $((TASKS / 100)) $((TASKS / 10)) "$TASKS"
+    do
+        prefill "scan$n.dat" "$n"
+        local one=$(best_ms '' --data "scan$n.dat" --script scan1.txt)
+        local all=$(best_ms '' --data "scan$n.dat" --script scan.txt)
+        line="$line $(((all - one) * 1000 / queries)) us on $n tasks,"
+    done
+    echo "${line%,}"
+}
+
+# A million commands of every shape against a one-task list, so that reading, parsing and
+# answering each command, rather than the list, is what is measured.
+bench_parse() {
+    local commands=1000000
+    prefill one.dat 1
+    echo "list" > "$WORK/parse1.txt"
+    seq 1 "$commands" | awk '{
+        k = $1 % 8
+        if (k == 0) print "mark 1"
+        else if (k == 1) print "unmark 1"
+        else if (k == 2) print "list /from 1 /to 1"
+        else if (k == 3) print "list /page 1 /size 5"
+        else if (k == 4) print "find zz"
+        else if (k == 5) print "delete 7"
+        else if (k == 6) print "deadline"
+        else print "event party /from 2025-10-10 18:00"
+    }' > "$WORK/parse.txt"
+    local one=$(best_ms '' --data one.dat --script parse1.txt)
+    local all=$(best_ms '' --data one.dat --script parse.txt)
+    echo "parse: $commands mixed commands took $((all - one)) ms," \
+        "$(((all - one) * 1000000 / commands)) ns each"
+}
+
+# A million CRLF-terminated commands piped to an interactive session that is never told bye,
+# so every line goes through the console reader and the session ends at end of input.
+bench_stdin() {
+    local commands=1000000
+    prefill one.dat 1
+    seq 1 "$commands" | sed 's/.*/find t1\r/' > "$WORK/stdin.txt"
+    local none=$(best_ms '' --data one.dat)
+    local all=$(best_ms '<stdin.txt' --data one.dat)
+    echo "stdin: $commands piped commands took $((all - none)) ms"
+}
+
+for c in $CASES
+do
+    "bench_$c"
+done
+rm -rf "$WORK"
@@ -0,0 +1,157 @@
+#!/usr/bin/env bash
+
+# Crash-injection and round-trip tests for storage and its recovery path.
+# Each case builds a data directory, damages it the way a crash or a bad disk would,
+# restarts Resonant on it and checks which tasks come back.
+
+BIN="$(cd .. && pwd)/bin"
+
+# create bin directory if it doesn't exist
+if [ ! -d "$BIN" ]
+then
+    mkdir "$BIN"
+fi
+
+# compile the code into the bin folder, terminates if error occurred
+if ! javac -encoding UTF-8 -Xlint:none -d "$BIN" $(find ../src/main/java -name '*.java')
+then
+    echo "********** BUILD FAILURE **********"
+    exit 1
+fi
+
+FAILED=0
+WORK=""
+
+# start a case in an empty working directory
+begin() {
+    CASE="$1"
+    WORK="$(mktemp -d)"
+    mkdir "$WORK/data"
+}
+
+# run Resonant in the case's working directory, reading commands from stdin
+resonant() {
+    (cd "$WORK" && java -classpath "$BIN" resonant.Main "$@")
+}
+
+# print the number of tasks that "list" shows
+count() {
+    printf 'list\nbye\n' | resonant "$@" | grep -cE '^ [0-9]+\.\['
+}
+
+# add todo t1 .. tN in one session
+add_todos() {
+    local n="$1"; shift
+    seq 1 "$n" | sed 's/^/todo t/' | resonant "$@" > /dev/null
+}
+
+# overwrite one byte of a file, as a bad sector or a torn write would
+damage() {
+    printf 'Z' | dd of="$1" bs=1 seek="$2" conv=notrunc status=none
+}
+
+expect() {
+    if [ "$1" = "$2" ]
+    then
+        echo "PASSED: $CASE"
+    else
+        echo "FAILED: $CASE (expected $2, got $1)"
+        FAILED=1
+    fi
+    rm -rf "$WORK"
+}
+
+# The only snapshot fails its checksum, but the journals still reach back to the first
+# record, so the whole list is rebuilt from them.
+begin "damaged snapshot rebuilt from both journals"
+add_todos 2500
+damage "$WORK/data/resonant.dat" 200
+printf 'todo after\nbye\n' | resonant > /dev/null
+expect "$(count)" 2501
+
+# The only snapshot fails its checksum and the journal it was compacted from is gone,
+# so the list cannot be rebuilt; the damaged files are kept rather than written over.
+begin "unrecoverable snapshot is set aside"
+add_todos 2500
+rm "$WORK/data/resonant.dat.journal.prev"
+damage "$WORK/data/resonant.dat" 200
+printf 'todo after\nbye\n' | resonant > /dev/null
+expect "$(count)-$(ls "$WORK/data" | grep -c '\.damaged$')" "1-2"
+
+# A crash in the middle of an append leaves half a record at the end of the journal.
+begin "torn journal record is cut off"
+add_todos 10
+printf '11 0000' >> "$WORK/data/resonant.dat.journal"
+printf 'todo after\nbye\n' | resonant > /dev/null
+expect "$(count)" 11
+
+# A crash while a snapshot is being written leaves its temporary file behind.
+begin "half-written snapshot is ignored"
+add_todos 1200
+head -c 100 "$WORK/data/resonant.dat" > "$WORK/data/resonant.dat.tmp"
+expect "$(count)" 1200
+
+# A crash after a snapshot is written but before its journal is moved aside leaves
+# records the snapshot already contains in the current journal.
+for file in tasks.txt tasks.dat
+do
+    begin "crash before journal rotation ($file)"
+    # The 1000th record compacts the journal into a snapshot.
+    seq 1 998 | sed 's/^/todo t/' > "$WORK/script.txt"
+    printf 'delete 1\ndelete 1\n' >> "$WORK/script.txt"
+    resonant --data "$file" < "$WORK/script.txt" > /dev/null
+    mv "$WORK/data/$file.journal.prev" "$WORK/data/$file.journal"
+    expect "$(count --data "$file")" 996
+done
+
+# A snapshot migrated from a legacy .txt file holds tasks that no journal record describes,
+# so when it is damaged the journal written since must not be taken for the whole list.
+begin "damaged migrated snapshot is set aside"
+printf 'T | 0 | one\nT | 1 | two\nT | 0 | three\n' > "$WORK/data/resonant.txt"
+printf 'todo four\ntodo five\nbye\n' | resonant > /dev/null
+damage "$WORK/data/resonant.dat" 30
+printf 'bye\n' | resonant > /dev/null
+expect "$(count)-$(ls "$WORK/data" | grep -c '\.damaged$')" "0-2"
+
+# The newest snapshot was written by journal compaction, so the previous snapshot plus both
+# journals still add up to the same list.
+begin "damaged snapshot falls back to the previous one"
+add_todos 1000
+yes 'mark 1' | head -n 1000 | resonant > /dev/null
+printf 'todo after\nbye\n' | resonant > /dev/null
+damage "$WORK/data/resonant.dat" 200
+expect "$(count)-$(ls "$WORK/data" | grep -c '\.damaged$')" "1001-0"
+
+# The newest snapshot was saved after an undo, a change no journal record describes. When it
+# is damaged, the previous snapshot plus the journals would replay onto the wrong tasks.
+for after in "delete 1" ""
+do
+    begin "damaged undo snapshot is set aside${after:+ (then $after)}"
+    add_todos 1000
+    printf 'todo x\nundo\n%s\nbye\n' "$after" | resonant --history 5 > /dev/null
+    damage "$WORK/data/resonant.dat" 200
+    printf 'bye\n' | resonant > /dev/null
+    # Snapshot, previous snapshot, previous journal, and the journal if anything followed.
+    expect "$(count)-$(ls "$WORK/data" | grep -c '\.damaged$')" "0-$([ -n "$after" ] && echo 4 || echo 3)"
+done
+
+# Text containing the field delimiter must come back unchanged when the journal is replayed.
+begin "journal keeps '|' in task text"
+printf 'todo a | b\ndeadline pay a|b bill /by b|c\nevent x|y /from 1|2 /to 3 | 4\nmark 2\nlist\nbye\n' \
+    | resonant | grep -E '^ [0-9]+\.\[' > "$WORK/before.txt"
+printf 'list\nbye\n' | resonant | grep -E '^ [0-9]+\.\[' > "$WORK/after.txt"
+expect "$(cmp -s "$WORK/before.txt" "$WORK/after.txt" && wc -l < "$WORK/after.txt")" 3
+
+# Journals written before added tasks were length-prefixed are still replayed.
+begin "old pipe-encoded journal records are read"
+printf 'A | T | 0 | old one\nA | D | 1 | old two | 2025-10-10\n' > "$WORK/data/resonant.dat.journal"
+expect "$(count)" 2
+
+if [ $FAILED -eq 0 ]
+then
+    echo "Test result: PASSED"
+    exit 0
+else
+    echo "Test result: FAILED"
+    exit 1
+fi
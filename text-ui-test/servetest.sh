@@ -0,0 +1,124 @@
+#!/usr/bin/env bash
+
+# Load test for --serve mode.
+# Starts a server on a free local port, drives concurrent client sessions against it, and
+# checks that every task arrived exactly once, in each session's order, and survives a restart.
+#
+# usage: ./servetest.sh [sessions] [adds per session]
+
+SESSIONS="${1:-16}"
+ADDS="${2:-200}"
+BIN="$(cd .. && pwd)/bin"
+
+# create bin directory if it doesn't exist
+if [ ! -d "$BIN" ]
+then
+    mkdir "$BIN"
+fi
+
+# compile the code into the bin folder, terminates if error occurred
+if ! javac -encoding UTF-8 -Xlint:none -d "$BIN" $(find ../src/main/java -name '*.java')
+then
+    echo "********** BUILD FAILURE **********"
+    exit 1
+fi
+
+WORK="$(mktemp -d)"
+mkdir "$WORK/data"
+FAILED=0
+
+fail() {
+    echo "FAILED: $1"
+    FAILED=1
+}
+
+# start the server on a port chosen by the system, and read the port back from its banner
+(cd "$WORK" && exec java -classpath "$BIN" resonant.Main --serve 0 > server.out 2>&1) &
+SERVER=$!
+PORT=""
+for i in $(seq 1 100)
+do
+    PORT="$(sed -n 's/.*Serving tasks on [0-9.]*:\([0-9]*\).*/\1/p' "$WORK/server.out")"
+    [ -n "$PORT" ] && break
+    sleep 0.1
+done
+if [ -z "$PORT" ]
+then
+    echo "********** SERVER DID NOT START **********"
+    cat "$WORK/server.out"
+    kill "$SERVER" 2> /dev/null
+    exit 1
+fi
+
+# send one session's commands, then read every reply until the server closes the connection
+session() {
+    exec 3<> "/dev/tcp/127.0.0.1/$PORT"
+    cat "$1" >&3
+    cat <&3 > "$2"
+    exec 3<&-
+}
+
+# session k adds "c<k>-1" .. "c<k>-N", and reads the list while the others write
+for k in $(seq 1 "$SESSIONS")
+do
+    for i in $(seq 1 "$ADDS")
+    do
+        echo "todo c$k-$i"
+        if [ $((i % 10)) -eq 0 ]
+        then
+            echo "list /page $((i / 10))"
+            echo "list /pending"
+        fi
+    done > "$WORK/in.$k"
+    echo "bye" >> "$WORK/in.$k"
+done
+
+START=$(date +%s%N)
+for k in $(seq 1 "$SESSIONS")
+do
+    session "$WORK/in.$k" "$WORK/out.$k" &
+done
+wait $(jobs -p | grep -v "^$SERVER\$")
+ELAPSED_MS=$((($(date +%s%N) - START) / 1000000))
+
+TOTAL=$((SESSIONS * ADDS))
+COMMANDS=$(cat "$WORK"/in.* | wc -l)
+echo "$SESSIONS sessions, $COMMANDS commands in ${ELAPSED_MS} ms" \
+    "($((COMMANDS * 1000 / (ELAPSED_MS + 1))) commands/s)"
+
+for k in $(seq 1 "$SESSIONS")
+do
+    ADDED=$(grep -c "Got it. I've added this task" "$WORK/out.$k")
+    [ "$ADDED" -eq "$ADDS" ] || fail "session $k saw $ADDED of $ADDS adds acknowledged"
+done
+if grep -l "OOPS" "$WORK"/out.* > /dev/null
+then
+    fail "a session got an error: $(grep -h "OOPS" "$WORK"/out.* | sort | uniq -c | head -3)"
+fi
+
+# every task is in the final list once, and each session's tasks are in the order it added them
+session <(printf 'list\nbye\n') "$WORK/final.txt"
+sed -n 's/^ [0-9]*\.\[T\]\[ \] \(c[0-9]*-[0-9]*\)$/\1/p' "$WORK/final.txt" > "$WORK/final.names"
+[ "$(wc -l < "$WORK/final.names")" -eq "$TOTAL" ] || fail "final list has $(wc -l < "$WORK/final.names") of $TOTAL tasks"
+[ "$(sort -u "$WORK/final.names" | wc -l)" -eq "$TOTAL" ] || fail "final list has duplicate tasks"
+for k in $(seq 1 "$SESSIONS")
+do
+    grep "^c$k-" "$WORK/final.names" | cut -d- -f2 > "$WORK/order.$k"
+    sort -n "$WORK/order.$k" | cmp -s - "$WORK/order.$k" || fail "session $k's tasks are out of order"
+done
+
+# stopping the server saves everything; a normal start sees the same list
+kill -TERM "$SERVER"
+wait "$SERVER" 2> /dev/null
+SAVED=$(cd "$WORK" && printf 'list\nbye\n' | java -classpath "$BIN" resonant.Main | grep -cE '^ [0-9]+\.\[')
+[ "$SAVED" -eq "$TOTAL" ] || fail "$SAVED of $TOTAL tasks were saved"
+
+rm -rf "$WORK"
+if [ $FAILED -eq 0 ]
+then
+    echo "Test result: PASSED"
+    exit 0
+else
+    echo "Test result: FAILED"
+    exit 1
+fi
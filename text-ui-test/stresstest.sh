@@ -0,0 +1,246 @@
+#!/usr/bin/env bash
+
+# Stress tests for large lists, bulk commands and concurrent reads.
+# The first part runs one large script of bulk commands against every list backend and the
+# segmented store, and checks the resulting list, that all of them agree, and that it reloads.
+# The second part serves one list to writers making bulk changes and readers listing it, and
+# checks that every list a reader got back was whole: no rows missing, repeated or out of place.
+#
+# usage: ./stresstest.sh [tasks] [rounds per writer]
+
+TASKS="${1:-100000}"
+ROUNDS="${2:-100}"
+BIN="$(cd .. && pwd)/bin"
+
+# create bin directory if it doesn't exist
+if [ ! -d "$BIN" ]
+then
+    mkdir "$BIN"
+fi
+
+# compile the code into the bin folder, terminates if error occurred
+if ! javac -encoding UTF-8 -Xlint:none -d "$BIN" $(find ../src/main/java -name '*.java')
+then
+    echo "********** BUILD FAILURE **********"
+    exit 1
+fi
+
+if [ "$TASKS" -lt 10000 ]
+then
+    echo "stresstest.sh needs at least 10000 tasks"
+    exit 1
+fi
+
+FAILED=0
+WORK="$(mktemp -d)"
+
+expect() {
+    if [ "$2" = "$3" ]
+    then
+        echo "PASSED: $1"
+    else
+        echo "FAILED: $1 (expected $3, got $2)"
+        FAILED=1
+    fi
+}
+
+# run Resonant in the working directory, reading commands from stdin
+resonant() {
+    (cd "$WORK" && java -classpath "$BIN" resonant.Main "$@")
+}
+
+# the task rows of a reply, without anything else around them
+rows() {
+    grep -E '^ [0-9]+\.\['
+}
+
+# Part 1: add t1 .. tN, mark t1 .. t(6N/10), unmark t1 .. t(N/10), then delete t1, t3 .. t(2N/10)
+# and t(5N/10 + 1) .. t(7N/10). What is left is t2 (not done), t(2N/10 + 1) .. t(5N/10) (done)
+# and t(7N/10 + 1) .. tN (not done).
+P1=$((TASKS / 10)); P2=$((TASKS * 2 / 10)); P5=$((TASKS * 5 / 10)); P6=$((TASKS * 6 / 10)); P7=$((TASKS * 7 / 10))
+{
+    seq 1 "$TASKS" | sed 's/^/todo t/'
+    echo "mark 1-$P6"
+    echo "unmark 1-$P1"
+    echo "delete 1,3-$P2,$((P5 + 1))-$P7"
+    echo "list /done"
+} > "$WORK/bulk.txt"
+{
+    echo " 1.[T][ ] t2"
+    seq $((P2 + 1)) "$P5" | awk '{ printf " %d.[T][X] t%d\n", NR + 1, $1 }'
+    seq $((P7 + 1)) "$TASKS" | awk -v from=$((P5 - P2 + 1)) '{ printf " %d.[T][ ] t%d\n", NR + from, $1 }'
+} > "$WORK/expected.txt"
+LEFT=$(wc -l < "$WORK/expected.txt")
+DONE=$((P5 - P2))
+
+for store in "array tasks.dat" "compact tasks.dat" "tree tasks.dat" "concurrent tasks.dat" "array tasks.seg"
+do
+    set -- $store
+    CASE="bulk commands on $TASKS tasks ($1 backend, $2)"
+    rm -rf "$WORK/data" && mkdir "$WORK/data"
+    START=$(date +%s%N)
+    resonant --backend "$1" --data "$2" --script bulk.txt --echo > "$WORK/out.txt"
+    ELAPSED_MS=$((($(date +%s%N) - START) / 1000000))
+    echo "$CASE: ${ELAPSED_MS} ms"
+
+    REMOVED=$(sed -n "s/.*I've removed these \([0-9]*\) tasks:.*/\1/p" "$WORK/out.txt")
+    expect "$CASE: removed" "$REMOVED" $((TASKS - LEFT))
+    SUMMARY=$(grep -o "([0-9]* of [0-9]* done)" "$WORK/out.txt")
+    expect "$CASE: done count" "$SUMMARY" "($DONE of $LEFT done)"
+    rows < "$WORK/out.txt" | tail -n "$DONE" > "$WORK/done.txt"
+    expect "$CASE: done rows" "$(grep -c '\[X\]' "$WORK/done.txt")" "$DONE"
+
+    printf 'list\nbye\n' | resonant --backend "$1" --data "$2" | rows > "$WORK/reloaded.txt"
+    expect "$CASE: reloaded list" "$(cmp -s "$WORK/reloaded.txt" "$WORK/expected.txt" && echo same)" same
+done
+
+# Part 2: writers add tasks and mark, unmark and delete ranges at the front of one served list,
+# while readers list pages, the done tasks and the whole list. Each writer round adds as many
+# tasks as it deletes, so the list ends the size it started.
+rm -rf "$WORK/data" && mkdir "$WORK/data"
+PREFILL=$((TASKS / 10))
+seq 1 "$PREFILL" | sed 's/^/todo t/' > "$WORK/prefill.txt"
+resonant --script prefill.txt > /dev/null
+
+(cd "$WORK" && exec java -classpath "$BIN" resonant.Main --serve 0 > server.out 2>&1) &
+SERVER=$!
+PORT=""
+for i in $(seq 1 100)
+do
+    PORT="$(sed -n 's/.*Serving tasks on [0-9.]*:\([0-9]*\).*/\1/p' "$WORK/server.out")"
+    [ -n "$PORT" ] && break
+    sleep 0.1
+done
+if [ -z "$PORT" ]
+then
+    echo "********** SERVER DID NOT START **********"
+    cat "$WORK/server.out"
+    kill "$SERVER" 2> /dev/null
+    rm -rf "$WORK"
+    exit 1
+fi
+
+# send one session's commands, then read every reply until the server closes the connection
+session() {
+    exec 3<> "/dev/tcp/127.0.0.1/$PORT"
+    cat "$1" >&3
+    cat <&3 > "$2"
+    exec 3<&-
+}
+
+WRITERS=4
+READERS=4
+for k in $(seq 1 "$WRITERS")
+do
+    for r in $(seq 1 "$ROUNDS")
+    do
+        for i in $(seq 1 20)
+        do
+            echo "todo w$k-$r-$i"
+        done
+        echo "mark 1-500"
+        echo "unmark $((r % 400 + 1))-$((r % 400 + 100))"
+        echo "delete 1-20"
+    done > "$WORK/writer.$k"
+    echo "bye" >> "$WORK/writer.$k"
+done
+for k in $(seq 1 "$READERS")
+do
+    for r in $(seq 1 "$ROUNDS")
+    do
+        echo "list /page $((r % (PREFILL / 200) + 1)) /size 200"
+        echo "list /done"
+        echo "list /from $((r * 7 % (PREFILL - 300) + 1)) /to $((r * 7 % (PREFILL - 300) + 300))"
+        if [ $((r % 10)) -eq 0 ]
+        then
+            echo "list"
+        fi
+    done > "$WORK/reader.$k"
+    echo "bye" >> "$WORK/reader.$k"
+done
+
+START=$(date +%s%N)
+for k in $(seq 1 "$WRITERS")
+do
+    session "$WORK/writer.$k" "$WORK/wout.$k" &
+done
+for k in $(seq 1 "$READERS")
+do
+    session "$WORK/reader.$k" "$WORK/rout.$k" &
+done
+wait $(jobs -p | grep -v "^$SERVER\$")
+ELAPSED_MS=$((($(date +%s%N) - START) / 1000000))
+COMMANDS=$(cat "$WORK"/writer.* "$WORK"/reader.* | wc -l)
+echo "$WRITERS writers and $READERS readers, $COMMANDS commands in ${ELAPSED_MS} ms"
+
+CASE="concurrent writers"
+expect "$CASE: errors" "$(cat "$WORK"/wout.* | grep -c 'OOPS')" 0
+expect "$CASE: removed" "$(cat "$WORK"/wout.* | sed -n "s/.*I've removed these \([0-9]*\) tasks:.*/\1/p" \
+    | awk '{ n += $1 } END { print n + 0 }')" $((WRITERS * ROUNDS * 20))
+
+# Check every reply box on its own. A window "tasks a to b of n" lists exactly a .. b; the done
+# tasks are "(m of n done)" rows, all done and in increasing order; a whole list counts up from 1.
+# No reply lists a task twice.
+CASE="concurrent readers"
+expect "$CASE: errors" "$(cat "$WORK"/rout.* | grep -c 'OOPS')" 0
+TORN=$(cat "$WORK"/rout.* | awk '
+    function check() {
+        if (mode == "window" && rows != last - first + 1) torn++
+        if (mode == "done" && rows != want) torn++
+        if (mode != "") boxes++
+        mode = ""
+    }
+    function number(s, what) {
+        match(s, what)
+        s = substr(s, RSTART, RLENGTH)
+        gsub(/[^0-9]/, "", s)
+        return s + 0
+    }
+    /^ *____/ { check(); next }
+    /Here are tasks [0-9]+ to [0-9]+ of [0-9]+ in your list:/ {
+        check(); mode = "window"; rows = 0; split("", seen)
+        first = number($0, "tasks [0-9]+"); last = number($0, "to [0-9]+"); next_row = first
+        next
+    }
+    /Here are the done tasks in your list \(/ {
+        check(); mode = "done"; rows = 0; split("", seen); prev = 0
+        want = number($0, "[(][0-9]+ of"); total = number($0, "of [0-9]+ done")
+        next
+    }
+    /No done tasks in your list/ { check(); boxes++; next }
+    /Here are the tasks in your list:/ {
+        check(); mode = "all"; rows = 0; split("", seen); next_row = 1
+        next
+    }
+    mode != "" && /^ [0-9]+\.\[/ {
+        n = number($0, "^ [0-9]+")
+        if (mode == "done") {
+            if (n <= prev || n > total || $0 !~ /\]\[X\] /) torn++
+            prev = n
+        } else {
+            if (n != next_row) torn++
+            next_row = n + 1
+        }
+        name = $0
+        sub(/^ [0-9]+\.\[.\]\[.\] /, "", name)
+        if (seen[name]++) torn++
+        rows++
+    }
+    END { check(); print torn + 0 "/" boxes + 0 }')
+expect "$CASE: torn replies" "${TORN%/*}" 0
+expect "$CASE: replies checked" "${TORN#*/}" $((READERS * (ROUNDS * 3 + ROUNDS / 10)))
+
+# stopping the server saves everything; a normal start sees the same number of tasks
+kill -TERM "$SERVER"
+wait "$SERVER" 2> /dev/null
+expect "concurrent list reloaded" "$(printf 'list\nbye\n' | resonant | rows | wc -l)" "$PREFILL"
+
+rm -rf "$WORK"
+if [ $FAILED -eq 0 ]
+then
+    echo "Test result: PASSED"
+    exit 0
+else
+    echo "Test result: FAILED"
+    exit 1
+fi